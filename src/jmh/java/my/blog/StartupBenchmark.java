@@ -0,0 +1,33 @@
+package my.blog;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.runtime.server.EmbeddedServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from context start to the first {@code GET /posts} response, per environment.
+ * Every measurement forks a fresh JVM, so class loading and JIT warm-up are part of the number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+
+    @Param({"default", "startup"})
+    private String environment;
+
+    @Benchmark
+    public String timeToFirstResponse() {
+        String[] environments = environment.equals("default") ? new String[0] : new String[]{environment};
+        try (EmbeddedServer server = ApplicationContext.run(EmbeddedServer.class, environments);
+             HttpClient client = HttpClient.create(server.getURL())) {
+            return client.toBlocking().retrieve("/posts");
+        }
+    }
+}
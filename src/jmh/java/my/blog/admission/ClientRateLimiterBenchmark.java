@@ -0,0 +1,55 @@
+package my.blog.admission;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a {@link ClientRateLimiter} decision for clients with tokens left ({@code allowed})
+ * and for a client without any ({@code shed}), from several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class ClientRateLimiterBenchmark {
+
+    @Param({"1000", "100000"})
+    private int clients;
+
+    private ClientRateLimiter unlimited;
+
+    private ClientRateLimiter exhausted;
+
+    private String[] addresses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AdmissionConfiguration configuration = new AdmissionConfiguration();
+        configuration.setRequestsPerSecond(1_000_000);
+        configuration.setBurst(1_000_000);
+        configuration.setMaximumClients(clients);
+        unlimited = new ClientRateLimiter(configuration);
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+
+        AdmissionConfiguration scraper = new AdmissionConfiguration();
+        scraper.setRequestsPerSecond(1);
+        scraper.setBurst(1);
+        exhausted = new ClientRateLimiter(scraper);
+        exhausted.acquire("scraper");
+    }
+
+    @Benchmark
+    public long allowed() {
+        return unlimited.acquire(addresses[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+
+    @Benchmark
+    public long shed() {
+        return exhausted.acquire("scraper");
+    }
+}
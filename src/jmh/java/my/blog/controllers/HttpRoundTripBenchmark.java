@@ -0,0 +1,64 @@
+package my.blog.controllers;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import my.blog.models.Post;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full in-process HTTP round trips through the Netty server and the HTTP client on loopback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HttpRoundTripBenchmark {
+
+    private EmbeddedServer server;
+
+    private HttpClient httpClient;
+
+    private BlockingHttpClient client;
+
+    private String accessToken;
+
+    @Setup(Level.Trial)
+    public void start() {
+        server = ApplicationContext.run(EmbeddedServer.class, Map.of(
+                "blog.posts.cache.maximum-size", 0,
+                "blog.http.admission.enabled", false));
+        httpClient = HttpClient.create(server.getURL());
+        client = httpClient.toBlocking();
+        accessToken = client.retrieve(HttpRequest.POST("/login", new UsernamePasswordCredentials("blog@gmail.net", "123456")),
+                BearerAccessRefreshToken.class).getAccessToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        httpClient.close();
+        server.close();
+    }
+
+    @Benchmark
+    public String getById() {
+        return client.retrieve("/posts/1");
+    }
+
+    @Benchmark
+    public String getPage() {
+        return client.retrieve("/posts?limit=20");
+    }
+
+    @Benchmark
+    public Post createPost() {
+        var post = Post.builder().title("Benchmark").text("Round trip").author("Bench").build();
+        return client.retrieve(HttpRequest.PUT("/posts/create", post).bearerAuth(accessToken), Post.class);
+    }
+}
@@ -0,0 +1,86 @@
+package my.blog.encoding;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.codec.MediaTypeCodec;
+import io.micronaut.jackson.codec.JsonMediaTypeCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import my.blog.models.Post;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU per page of posts and bytes on the wire, reported as the wireBytes counter,
+ * for every representation of a listing: JSON or CBOR, uncompressed or with the pooled compressors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostEncodingBenchmark {
+
+    @Param({"json", "json-gzip", "json-deflate", "cbor", "cbor-gzip", "cbor-deflate"})
+    private String encoding;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private ApplicationContext context;
+
+    private MediaTypeCodec codec;
+
+    private ResponseCompressor compressor;
+
+    private String compression;
+
+    private List<Post> page;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+
+        public double wireBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = ApplicationContext.run();
+        codec = encoding.startsWith("cbor") ? context.getBean(CborMediaTypeCodec.class) : context.getBean(JsonMediaTypeCodec.class);
+        compressor = context.getBean(ResponseCompressor.class);
+        int separator = encoding.indexOf('-');
+        compression = separator < 0 ? null : encoding.substring(separator + 1);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Post post = Post.builder()
+                    .title("Benchmark post title " + i)
+                    .text("A few sentences of text about post number " + i + ". ".repeat(20))
+                    .author("Author " + (i % 10))
+                    .createDate(LocalDateTime.of(2021, 3, 1, 12, 30).plusMinutes(i))
+                    .build();
+            post.setUpdateDate(post.getCreateDate());
+            post.setId(i + 1);
+            post.setGuid(UUID.randomUUID().toString());
+            post.setVersion(1L);
+            page.add(post);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ByteBuf encodePage(Wire wire) {
+        ByteBuf body = Unpooled.wrappedBuffer(codec.encode(page));
+        if (compression != null) {
+            body = compressor.compress(body, compression);
+        }
+        wire.wireBytes = body.readableBytes();
+        return body;
+    }
+}
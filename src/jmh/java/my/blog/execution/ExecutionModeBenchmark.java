@@ -0,0 +1,93 @@
+package my.blog.execution;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.runtime.server.EmbeddedServer;
+import my.blog.models.Post;
+import my.blog.repositories.MemoryStorage;
+import my.blog.repositories.PostMemoryRepo;
+import my.blog.repositories.UserMemoryRepo;
+import my.blog.repositories.journal.NoopPostJournal;
+import my.blog.search.PostSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /posts} throughput per execution mode while every page read blocks for a few milliseconds,
+ * as a JDBC or disk backed repository would.
+ * With {@code VIRTUAL_THREADS} on a JDK without virtual threads the numbers are those of the thread pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(128)
+public class ExecutionModeBenchmark {
+
+    @Param({"EVENT_LOOP", "THREAD_POOL", "VIRTUAL_THREADS"})
+    private String mode;
+
+    @Param({"5"})
+    private long latencyMillis;
+
+    private EmbeddedServer server;
+
+    private HttpClient httpClient;
+
+    private BlockingHttpClient client;
+
+    @Setup(Level.Trial)
+    public void start() {
+        var repository = new SlowPostRepository(latencyMillis);
+        var context = ApplicationContext.builder()
+                .properties(Map.of(
+                        "blog.storage.type", "benchmark",
+                        "blog.execution.mode", mode,
+                        "blog.posts.cache.maximum-size", 0,
+                        "blog.http.admission.enabled", false))
+                .singletons(repository, new UserMemoryRepo())
+                .start();
+        server = context.getBean(EmbeddedServer.class).start();
+        httpClient = HttpClient.create(server.getURL());
+        client = httpClient.toBlocking();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        httpClient.close();
+        server.getApplicationContext().close();
+    }
+
+    @Benchmark
+    public String readPage() {
+        return client.retrieve("/posts?limit=20");
+    }
+
+    private static final class SlowPostRepository extends PostMemoryRepo {
+
+        private final long latencyMillis;
+
+        private SlowPostRepository(long latencyMillis) {
+            super(new MemoryStorage(), new NoopPostJournal(), new PostSearchIndex());
+            this.latencyMillis = latencyMillis;
+            seedIfEmpty();
+        }
+
+        @Override
+        public List<Post> findPostsAfterId(long afterId, int limit) {
+            block();
+            return super.findPostsAfterId(afterId, limit);
+        }
+
+        private void block() {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
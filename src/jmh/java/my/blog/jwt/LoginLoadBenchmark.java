@@ -0,0 +1,75 @@
+package my.blog.jwt;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code GET /posts} alone and while other threads keep logging in.
+ * The login cache is disabled, so every login hashes the password; compare the p99 of
+ * {@code baseline:readPosts} with {@code loginBurst:readPostsDuringLogins}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoginLoadBenchmark {
+
+    private EmbeddedServer server;
+
+    private HttpClient httpClient;
+
+    private BlockingHttpClient client;
+
+    @Setup(Level.Trial)
+    public void start() {
+        server = ApplicationContext.run(EmbeddedServer.class, Map.of(
+                "blog.security.login.cache-maximum-size", 0,
+                "blog.security.login.max-failures", Integer.MAX_VALUE,
+                "blog.http.admission.enabled", false));
+        httpClient = HttpClient.create(server.getURL());
+        client = httpClient.toBlocking();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        httpClient.close();
+        server.close();
+    }
+
+    @Benchmark
+    @Group("baseline")
+    @GroupThreads(4)
+    public String readPosts() {
+        return client.retrieve("/posts");
+    }
+
+    @Benchmark
+    @Group("loginBurst")
+    @GroupThreads(4)
+    public String readPostsDuringLogins() {
+        return client.retrieve("/posts");
+    }
+
+    /**
+     * Logins rejected by the full hashing queue answer 401 right away and are counted as well.
+     */
+    @Benchmark
+    @Group("loginBurst")
+    @GroupThreads(8)
+    public HttpStatus login() {
+        try {
+            return client.exchange(HttpRequest.POST("/login", new UsernamePasswordCredentials("blog@gmail.net", "123456"))).getStatus();
+        } catch (HttpClientResponseException e) {
+            return e.getStatus();
+        }
+    }
+}
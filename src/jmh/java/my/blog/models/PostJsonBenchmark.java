@@ -0,0 +1,105 @@
+package my.blog.models;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micronaut.context.ApplicationContext;
+import io.netty.buffer.ByteBuf;
+import my.blog.cache.PostJsonFragments;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post JSON mapping with the application's configured {@link ObjectMapper},
+ * so changes to the {@code jackson} settings show up here.
+ * The list benchmarks compare serializing a page of posts against joining their cached {@link PostJsonFragments}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PostJsonBenchmark {
+
+    private ApplicationContext context;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private Post post;
+
+    private byte[] json;
+
+    private ObjectWriter listWriter;
+
+    private PostJsonFragments fragments;
+
+    private List<Post> page;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = ApplicationContext.run();
+        ObjectMapper mapper = context.getBean(ObjectMapper.class);
+        writer = mapper.writerFor(Post.class);
+        reader = mapper.readerFor(Post.class);
+        post = Post.builder()
+                .title("Benchmark post title")
+                .text("A few sentences of text. ".repeat(40))
+                .author("Victor")
+                .createDate(LocalDateTime.of(2021, 3, 1, 12, 30))
+                .updateDate(LocalDateTime.of(2021, 3, 2, 8, 15))
+                .build();
+        post.setId(42L);
+        post.setGuid(UUID.randomUUID().toString());
+        post.setVersion(3L);
+        json = writer.writeValueAsBytes(post);
+
+        listWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Post.class));
+        fragments = context.getBean(PostJsonFragments.class);
+        page = new ArrayList<>(20);
+        for (int i = 0; i < 20; i++) {
+            Post pagePost = Post.builder()
+                    .title("Benchmark post title " + i)
+                    .text(post.getText())
+                    .author(post.getAuthor())
+                    .createDate(post.getCreateDate())
+                    .updateDate(post.getUpdateDate())
+                    .build();
+            pagePost.setId(i + 1);
+            pagePost.setGuid(UUID.randomUUID().toString());
+            pagePost.setVersion(1L);
+            page.add(pagePost);
+        }
+        fragments.encodeList(page);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public Post deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return listWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public ByteBuf joinListFragments() {
+        return fragments.encodeList(page);
+    }
+}
@@ -0,0 +1,78 @@
+package my.blog.repositories;
+
+import my.blog.models.Post;
+import my.blog.repositories.journal.NoopPostJournal;
+import my.blog.search.PostSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of {@link PostMemoryRepo#updatePost(Post)} from several threads, each on posts of its own
+ * ({@code distinctPosts}) or all on the same post ({@code samePost}), without journal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class ConcurrentUpdateBenchmark {
+
+    private static final int POSTS = 10_000;
+
+    private PostMemoryRepo repository;
+
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        repository = new PostMemoryRepo(new MemoryStorage(), new NoopPostJournal(), new PostSearchIndex());
+        for (int i = 0; i < POSTS; i++) {
+            repository.createPost(Post.builder()
+                    .title("Title " + i)
+                    .text("Text of the post number " + i)
+                    .author("Author " + (i % 100))
+                    .createDate(LocalDateTime.now())
+                    .build());
+        }
+        firstId = repository.findPostsAfterId(0, 1).get(0).getId();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadPosts {
+
+        private static final AtomicInteger threads = new AtomicInteger();
+
+        long from;
+
+        long count;
+
+        @Setup(Level.Trial)
+        public void assign(ConcurrentUpdateBenchmark benchmark, BenchmarkParams params) {
+            int threadCount = params.getThreads();
+            int thread = threads.getAndIncrement() % threadCount;
+            count = POSTS / threadCount;
+            from = benchmark.firstId + thread * count;
+        }
+    }
+
+    @Benchmark
+    public Optional<Post> distinctPosts(ThreadPosts posts) {
+        return repository.updatePost(change(posts.from + ThreadLocalRandom.current().nextLong(posts.count)));
+    }
+
+    @Benchmark
+    public Optional<Post> samePost() {
+        return repository.updatePost(change(firstId));
+    }
+
+    private static Post change(long id) {
+        Post change = Post.builder().title("Updated title").text("Updated text").build();
+        change.setId(id);
+        return change;
+    }
+}
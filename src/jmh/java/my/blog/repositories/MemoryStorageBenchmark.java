@@ -0,0 +1,51 @@
+package my.blog.repositories;
+
+import my.blog.models.Post;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemoryStorageBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private MemoryStorage storage;
+
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        storage = new MemoryStorage();
+        for (int i = 0; i < size; i++) {
+            Post post = Post.builder()
+                    .title("Title " + i)
+                    .text("Text " + i)
+                    .author("Author " + (i % 100))
+                    .createDate(LocalDateTime.now())
+                    .build();
+            post.setId(storage.incrementAndGetId());
+            post.setGuid(UUID.randomUUID().toString());
+            storage.save(post);
+        }
+        maxId = storage.size();
+    }
+
+    @Benchmark
+    public Optional<Post> findById() {
+        return storage.findById(ThreadLocalRandom.current().nextLong(1, maxId + 1));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Post> findByIdContended() {
+        return storage.findById(ThreadLocalRandom.current().nextLong(1, maxId + 1));
+    }
+}
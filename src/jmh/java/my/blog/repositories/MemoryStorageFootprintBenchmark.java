@@ -0,0 +1,78 @@
+package my.blog.repositories;
+
+import my.blog.models.Post;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retained heap per post, reported as the bytesPerPost counter: the storage holding compact posts
+ * against the same posts held as {@link Post} objects, which is what the storage kept before.
+ * Run with a fixed heap, e.g. -jvmArgs -Xms2g -Xmx2g, so the used heap deltas are comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MemoryStorageFootprintBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public double bytesPerPost;
+    }
+
+    @Benchmark
+    public Object compactStorage(Footprint footprint) {
+        long before = usedHeap();
+        MemoryStorage storage = new MemoryStorage();
+        for (int i = 0; i < size; i++) {
+            storage.save(post(storage.incrementAndGetId(), i));
+        }
+        footprint.bytesPerPost = (double) (usedHeap() - before) / size;
+        return storage;
+    }
+
+    @Benchmark
+    public Object postObjects(Footprint footprint) {
+        long before = usedHeap();
+        List<Post> posts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            posts.add(post(i + 1, i));
+        }
+        footprint.bytesPerPost = (double) (usedHeap() - before) / size;
+        return posts;
+    }
+
+    private static Post post(long id, int i) {
+        Post post = Post.builder()
+                .title("Title " + i)
+                .text("Text of post number " + i)
+                .author("Author " + (i % 100))
+                .createDate(LocalDateTime.now())
+                .build();
+        post.setUpdateDate(post.getCreateDate());
+        post.setId(id);
+        post.setGuid(UUID.randomUUID().toString());
+        post.setVersion(1L);
+        return post;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
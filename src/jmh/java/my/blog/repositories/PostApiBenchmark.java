@@ -0,0 +1,101 @@
+package my.blog.repositories;
+
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.subscribers.DisposableSubscriber;
+import my.blog.models.Post;
+import my.blog.repositories.journal.NoopPostJournal;
+import my.blog.search.PostSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking and reactive in-memory repository APIs side by side, run with {@code -prof gc} to compare allocation.
+ * Reactive results are consumed by subscribing, as the HTTP layer would, not by blocking on them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PostApiBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    private static final int PAGE = 20;
+
+    private PostMemoryRepo blocking;
+
+    private ReactivePostMemoryRepo reactive;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        var storage = new MemoryStorage();
+        blocking = new PostMemoryRepo(storage, new NoopPostJournal(), new PostSearchIndex());
+        reactive = new ReactivePostMemoryRepo(blocking);
+        for (int i = 0; i < SIZE; i++) {
+            blocking.createPost(Post.builder()
+                    .title("Title " + i)
+                    .text("Text " + i)
+                    .author("Author " + (i % 100))
+                    .createDate(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Optional<Post> findByIdBlocking() {
+        return blocking.findById(randomId());
+    }
+
+    @Benchmark
+    public void findByIdReactive(Blackhole blackhole) {
+        Maybe<Post> post = reactive.findById(randomId());
+        post.subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<Post> pageBlocking() {
+        return blocking.findPostsAfterId(randomId() - PAGE, PAGE);
+    }
+
+    @Benchmark
+    public void pageReactive(Blackhole blackhole) {
+        Flowable<Post> page = reactive.findPostsAfterId(randomId() - PAGE, PAGE);
+        page.subscribe(new DisposableSubscriber<>() {
+            @Override
+            public void onNext(Post post) {
+                blackhole.consume(post);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                blackhole.consume(t);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    @Benchmark
+    public Post createBlocking() {
+        return blocking.createPost(Post.builder().title("New").text("New text").author("Bench").build());
+    }
+
+    @Benchmark
+    public void createReactive(Blackhole blackhole) {
+        Single<Post> post = reactive.createPost(Post.builder().title("New").text("New text").author("Bench").build());
+        post.subscribe(blackhole::consume);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(PAGE + 1, SIZE + 1);
+    }
+}
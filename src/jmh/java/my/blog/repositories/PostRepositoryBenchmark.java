@@ -0,0 +1,88 @@
+package my.blog.repositories;
+
+import my.blog.models.Post;
+import my.blog.repositories.journal.NoopPostJournal;
+import my.blog.search.PostSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PostMemoryRepo} operations at different store sizes, without journal.
+ * A delete is measured together with the create that keeps the store size stable,
+ * subtract {@code createPost} to get the delete alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PostRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private PostMemoryRepo repository;
+
+    private long firstId;
+
+    private long oldestId;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        var storage = new MemoryStorage();
+        repository = new PostMemoryRepo(storage, new NoopPostJournal(), new PostSearchIndex());
+        for (int i = 0; i < size; i++) {
+            repository.createPost(newPost(i));
+        }
+        firstId = repository.findPostsAfterId(0, 1).get(0).getId();
+        oldestId = firstId;
+    }
+
+    @Benchmark
+    public Optional<Post> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public List<Post> findAllPosts() {
+        return repository.findAllPosts();
+    }
+
+    @Benchmark
+    public Post createPost() {
+        return repository.createPost(newPost(size));
+    }
+
+    @Benchmark
+    public Optional<Post> updatePost() {
+        Post change = Post.builder().title("Updated title").text("Updated text").build();
+        change.setId(randomId());
+        return repository.updatePost(change);
+    }
+
+    @Benchmark
+    public Post deletePostByIdAndCreate() {
+        repository.deletePostById(oldestId++);
+        return repository.createPost(newPost(size));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(firstId, firstId + size);
+    }
+
+    private static Post newPost(int i) {
+        return Post.builder()
+                .title("Title " + i)
+                .text("Text of the post number " + i)
+                .author("Author " + (i % 100))
+                .createDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package my.blog.repositories.journal;
+
+import my.blog.models.Post;
+import my.blog.repositories.MemoryStorage;
+import my.blog.repositories.PostMemoryRepo;
+import my.blog.search.PostSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class PostJournalBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Writes {
+
+        @Param({"ALWAYS", "BATCH", "NEVER"})
+        private FsyncPolicy fsync;
+
+        private Path directory;
+
+        private FilePostJournal journal;
+
+        private PostMemoryRepo repo;
+
+        @Setup(Level.Trial)
+        public void open() throws IOException {
+            directory = Files.createTempDirectory("post-journal");
+            MemoryStorage storage = new MemoryStorage();
+            journal = new FilePostJournal(configuration(directory, fsync), storage);
+            repo = new PostMemoryRepo(storage, journal, new PostSearchIndex());
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            journal.close();
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Recovery {
+
+        @Param({"100000", "1000000"})
+        private int posts;
+
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void fill() throws IOException {
+            directory = Files.createTempDirectory("post-journal");
+            MemoryStorage storage = new MemoryStorage();
+            FilePostJournal journal = new FilePostJournal(configuration(directory, FsyncPolicy.NEVER), storage);
+            PostMemoryRepo repo = new PostMemoryRepo(storage, journal, new PostSearchIndex());
+            for (int i = 0; i < posts; i++) {
+                repo.createPost(newPost(i));
+            }
+            journal.snapshot();
+            for (int i = 0; i < posts / 10; i++) {
+                Post change = newPost(i);
+                change.setId(i + 1);
+                repo.updatePost(change);
+            }
+            journal.close();
+        }
+
+        @TearDown(Level.Trial)
+        public void clean() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Post writeThroughput(Writes writes) {
+        return writes.repo.createPost(newPost(0));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int recover(Recovery recovery) throws IOException {
+        MemoryStorage storage = new MemoryStorage();
+        FilePostJournal journal = new FilePostJournal(configuration(recovery.directory, FsyncPolicy.NEVER), storage);
+        journal.close();
+        return storage.size();
+    }
+
+    private static JournalConfiguration configuration(Path directory, FsyncPolicy fsync) {
+        JournalConfiguration configuration = new JournalConfiguration();
+        configuration.setEnabled(true);
+        configuration.setDirectory(directory.toString());
+        configuration.setFsync(fsync);
+        return configuration;
+    }
+
+    private static Post newPost(int i) {
+        return Post.builder()
+                .title("Title " + i)
+                .text("Text of post number " + i)
+                .author("Author " + (i % 100))
+                .build();
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package my.blog.search;
+
+import my.blog.models.Post;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+public class PostSearchIndexBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"10000", "100000"})
+    private int posts;
+
+    private List<Post> corpus;
+
+    private PostSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        SplittableRandom random = new SplittableRandom(42);
+        corpus = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            Post post = Post.builder()
+                    .title(words(random, 6))
+                    .text(words(random, 120))
+                    .author("author" + random.nextInt(500))
+                    .build();
+            post.setId(i + 1);
+            corpus.add(post);
+        }
+        index = new PostSearchIndex();
+        corpus.forEach(index::index);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public PostSearchIndex indexAll() {
+        PostSearchIndex fresh = new PostSearchIndex();
+        corpus.forEach(fresh::index);
+        return fresh;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long[] searchTwoTerms() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return index.search(word(random.nextInt(VOCABULARY)) + " " + word(random.nextInt(VOCABULARY)), 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long[] searchFrequentTerm() {
+        return index.search(word(0), 20);
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            // skewed towards low ranks, like word frequencies in natural text
+            int rank = (int) (VOCABULARY * Math.pow(random.nextDouble(), 3));
+            text.append(word(rank)).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static String word(int rank) {
+        return "w" + Integer.toString(rank, 36);
+    }
+}
@@ -1,13 +1,13 @@
 package my.blog;
 
+import io.micronaut.context.ApplicationContext;
 import io.micronaut.runtime.Micronaut;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.List;
 
 @OpenAPIDefinition(
         info = @Info (
@@ -17,13 +17,22 @@ import java.util.Collection;
         )
 )
 public class Application {
+
+    /**
+     * Stops the application right after startup, used by the {@code cdsArchive} training run.
+     */
+    private static final String EXIT_AFTER_STARTUP = "blog.exit-after-startup";
+
     public static void main(String[] args) {
         final Logger logger = LoggerFactory.getLogger(Application.class);
-        final Collection<String> expected = Arrays.asList("PG_USERNAME", "PG_PASSWORD");
-
-        System.getenv().entrySet().stream()
-                .filter(e -> expected.contains(e.getKey()))
-                .forEach(e -> logger.debug("{}={}", e.getKey(), e.getValue()));
-        Micronaut.run(Application.class, args);
+        if (logger.isDebugEnabled()) {
+            for (String name : List.of("PG_USERNAME", "PG_PASSWORD")) {
+                logger.debug("{}={}", name, System.getenv(name));
+            }
+        }
+        ApplicationContext context = Micronaut.run(Application.class, args);
+        if (Boolean.getBoolean(EXIT_AFTER_STARTUP)) {
+            context.close();
+        }
     }
 }
@@ -0,0 +1,36 @@
+package my.blog.admission;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties("blog.http.admission")
+@Getter
+@Setter
+public class AdmissionConfiguration {
+
+    private boolean enabled = true;
+
+    private int requestsPerSecond = 50;
+
+    private int burst = 200;
+
+    private int maximumClients = 100_000;
+
+    private Duration clientIdleTimeout = Duration.ofMinutes(5);
+
+    private int maxConcurrentExpensive = Runtime.getRuntime().availableProcessors() * 2;
+
+    private List<String> expensivePaths = List.of(
+            "/posts", "/posts/search", "/posts/batch", "/posts/batch/create", "/posts/batch/update",
+            "/rx/posts", "/rx/posts/search");
+
+    private int maxStreamsPerClient = 2;
+
+    private int maxConcurrentStreams = 256;
+
+    private List<String> streamingPaths = List.of("/posts/stream", "/posts/changes");
+}
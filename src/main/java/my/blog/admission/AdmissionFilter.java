@@ -0,0 +1,196 @@
+package my.blog.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.server.util.HttpClientAddressResolver;
+import io.micronaut.security.filters.SecurityFilter;
+import io.reactivex.Flowable;
+import my.blog.errors.CustomHttpResponseError;
+import org.reactivestreams.Publisher;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sheds requests of the posts API with 429 and Retry-After before they reach a controller: requests of a client
+ * (its username once authenticated, its address otherwise) beyond its {@link ClientRateLimiter} tokens, and
+ * requests of expensive endpoints beyond the global cap of concurrent ones, and streams beyond the caps of open streams
+ * per client and in total. A stream lasts as long as its reader, so streams are kept out of the expensive cap
+ * and a few slow readers can not shed the requests of everyone else.
+ * Runs after the security filter to see the user, shedding only builds a response from prepared error bodies.
+ */
+@Filter({"/posts", "/posts/**", "/rx/posts", "/rx/posts/**"})
+@Requires(property = "blog.http.admission.enabled", notEquals = "false")
+public class AdmissionFilter implements HttpServerFilter {
+
+    private static final String USER_PREFIX = "user:";
+
+    private static final String UNKNOWN_ADDRESS = "unknown";
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ClientRateLimiter rateLimiter;
+
+    private final HttpClientAddressResolver addressResolver;
+
+    private final Set<String> expensivePaths;
+
+    private final int maxConcurrentExpensive;
+
+    private final AtomicInteger expensiveInFlight = new AtomicInteger();
+
+    private final Set<String> streamingPaths;
+
+    private final int maxStreamsPerClient;
+
+    private final int maxConcurrentStreams;
+
+    private final AtomicInteger streamsInFlight = new AtomicInteger();
+
+    private final Map<String, Integer> streamsByClient = new ConcurrentHashMap<>();
+
+    private final CustomHttpResponseError rateLimited;
+
+    private final CustomHttpResponseError overloaded;
+
+    private final CustomHttpResponseError tooManyStreams;
+
+    private final Counter rateLimitedCount;
+
+    private final Counter overloadedCount;
+
+    private final Counter streamsCount;
+
+    public AdmissionFilter(AdmissionConfiguration configuration, ClientRateLimiter rateLimiter,
+                           HttpClientAddressResolver addressResolver, MeterRegistry registry) {
+        this.rateLimiter = rateLimiter;
+        this.addressResolver = addressResolver;
+        this.expensivePaths = Set.copyOf(configuration.getExpensivePaths());
+        this.maxConcurrentExpensive = configuration.getMaxConcurrentExpensive();
+        this.streamingPaths = Set.copyOf(configuration.getStreamingPaths());
+        this.maxStreamsPerClient = configuration.getMaxStreamsPerClient();
+        this.maxConcurrentStreams = configuration.getMaxConcurrentStreams();
+        this.rateLimited = error("Too many requests, try again later");
+        this.overloaded = error("Server is busy, try again later");
+        this.tooManyStreams = error("Too many open streams, close one and try again");
+        this.rateLimitedCount = Counter.builder("blog.http.shed")
+                .description("Requests refused with 429")
+                .tag("reason", "rate")
+                .register(registry);
+        this.overloadedCount = Counter.builder("blog.http.shed")
+                .description("Requests refused with 429")
+                .tag("reason", "concurrency")
+                .register(registry);
+        this.streamsCount = Counter.builder("blog.http.shed")
+                .description("Requests refused with 429")
+                .tag("reason", "streams")
+                .register(registry);
+        Gauge.builder("blog.http.expensive.in-flight", expensiveInFlight, AtomicInteger::get)
+                .description("Requests of expensive endpoints in progress")
+                .register(registry);
+        Gauge.builder("blog.http.streams.in-flight", streamsInFlight, AtomicInteger::get)
+                .description("Open streams")
+                .register(registry);
+        Gauge.builder("blog.http.rate-limit.clients", rateLimiter, ClientRateLimiter::clients)
+                .description("Clients with a rate limit bucket")
+                .register(registry);
+    }
+
+    @Override
+    public int getOrder() {
+        return SecurityFilter.ORDER + 1;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        String client = client(request);
+        long wait = rateLimiter.acquire(client);
+        if (wait > 0) {
+            rateLimitedCount.increment();
+            return Publishers.just(tooManyRequests(rateLimited, (wait + SECOND - 1) / SECOND));
+        }
+        if (streamingPaths.contains(request.getPath())) {
+            return admitStream(client, request, chain);
+        }
+        if (!expensivePaths.contains(request.getPath())) {
+            return chain.proceed(request);
+        }
+        if (expensiveInFlight.incrementAndGet() > maxConcurrentExpensive) {
+            expensiveInFlight.decrementAndGet();
+            overloadedCount.increment();
+            return Publishers.just(tooManyRequests(overloaded, 1));
+        }
+        return Flowable.fromPublisher(chain.proceed(request))
+                .doFinally(expensiveInFlight::decrementAndGet);
+    }
+
+    private Publisher<MutableHttpResponse<?>> admitStream(String client, HttpRequest<?> request, ServerFilterChain chain) {
+        if (streamsInFlight.incrementAndGet() > maxConcurrentStreams) {
+            streamsInFlight.decrementAndGet();
+            streamsCount.increment();
+            return Publishers.just(tooManyRequests(overloaded, 1));
+        }
+        if (!acquireStream(client)) {
+            streamsInFlight.decrementAndGet();
+            streamsCount.increment();
+            return Publishers.just(tooManyRequests(tooManyStreams, 1));
+        }
+        return Flowable.fromPublisher(chain.proceed(request))
+                .doFinally(() -> {
+                    streamsByClient.computeIfPresent(client, (key, streams) -> streams == 1 ? null : streams - 1);
+                    streamsInFlight.decrementAndGet();
+                });
+    }
+
+    private boolean acquireStream(String client) {
+        boolean[] acquired = new boolean[1];
+        streamsByClient.compute(client, (key, streams) -> {
+            int open = streams == null ? 0 : streams;
+            if (open >= maxStreamsPerClient) {
+                return streams;
+            }
+            acquired[0] = true;
+            return open + 1;
+        });
+        return acquired[0];
+    }
+
+    private String client(HttpRequest<?> request) {
+        return request.getUserPrincipal()
+                .map(Principal::getName)
+                .map(USER_PREFIX::concat)
+                .orElseGet(() -> {
+                    String address = addressResolver.resolve(request);
+                    return address != null ? address : UNKNOWN_ADDRESS;
+                });
+    }
+
+    private static MutableHttpResponse<?> tooManyRequests(CustomHttpResponseError error, long retryAfterSeconds) {
+        return HttpResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(error);
+    }
+
+    private static CustomHttpResponseError error(String message) {
+        return CustomHttpResponseError.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.getCode())
+                .error(HttpStatus.TOO_MANY_REQUESTS.name())
+                .message(message)
+                .build();
+    }
+}
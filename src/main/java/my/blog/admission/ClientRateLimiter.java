@@ -0,0 +1,68 @@
+package my.blog.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client holding {@code burst} tokens refilled at {@code requestsPerSecond}.
+ * The bucket of a client is a single time, the moment it would be full again, advanced by compare and set,
+ * so neither allowing nor refusing a request takes a lock. Buckets live in a bounded cache and are dropped
+ * once a client was idle for the configured timeout, a dropped bucket is simply full again.
+ */
+@Singleton
+public class ClientRateLimiter {
+
+    private final long interval;
+
+    private final long capacity;
+
+    private final LongSupplier clock;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    @Inject
+    public ClientRateLimiter(AdmissionConfiguration configuration) {
+        this(configuration, System::nanoTime);
+    }
+
+    ClientRateLimiter(AdmissionConfiguration configuration, LongSupplier clock) {
+        this.interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, configuration.getRequestsPerSecond());
+        this.capacity = interval * Math.max(1, configuration.getBurst());
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(configuration.getMaximumClients())
+                .expireAfterAccess(configuration.getClientIdleTimeout())
+                .build();
+    }
+
+    /**
+     * Takes a token of the client.
+     *
+     * @return 0 if a token was taken, otherwise the nanos until the next token is available
+     */
+    public long acquire(String client) {
+        long now = clock.getAsLong();
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - capacity;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long clients() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,20 @@
+package my.blog.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serialized post together with the validators of the revision it was serialized from.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedPost {
+
+    private final byte[] body;
+
+    private final String etag;
+
+    private final LocalDateTime lastModified;
+}
@@ -0,0 +1,97 @@
+package my.blog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.jackson.codec.JsonMediaTypeCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import my.blog.events.PostMutationEvent;
+import my.blog.models.Post;
+import my.blog.repositories.bodies.PostBodyConfiguration;
+
+import javax.inject.Singleton;
+import java.util.List;
+
+/**
+ * Serialized JSON of single posts, used to answer post lists by joining the cached JSON instead of serializing
+ * every post again. A fragment is used only for the revision it was serialized from, so it never serves a stale
+ * post; written posts are serialized again right away. With texts in mapped storage nothing is cached, so the
+ * texts do not come back onto the heap.
+ */
+@Singleton
+public class PostJsonFragments implements ApplicationEventListener<PostMutationEvent> {
+
+    private static final ByteBuf OPEN = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(new byte[]{'['}));
+
+    private static final ByteBuf SEPARATOR = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(new byte[]{','}));
+
+    private static final ByteBuf CLOSE = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(new byte[]{']'}));
+
+    private final JsonMediaTypeCodec jsonCodec;
+
+    private final Cache<Long, CachedPost> cache;
+
+    private final boolean caching;
+
+    public PostJsonFragments(JsonMediaTypeCodec jsonCodec,
+                             @Value("${blog.posts.fragments.maximum-size:10000}") long maximumSize,
+                             @Value("${blog.storage.bodies.type:heap}") String bodiesType) {
+        this.jsonCodec = jsonCodec;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.caching = !PostBodyConfiguration.MAPPED.equals(bodiesType);
+    }
+
+    /**
+     * @return the same JSON array as serializing the list with the codec
+     */
+    public ByteBuf encodeList(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return Unpooled.wrappedBuffer(OPEN.duplicate(), CLOSE.duplicate());
+        }
+        ByteBuf[] parts = new ByteBuf[posts.size() * 2 + 1];
+        parts[0] = OPEN.duplicate();
+        for (int i = 0; i < posts.size(); i++) {
+            parts[i * 2 + 1] = Unpooled.wrappedBuffer(fragment(posts.get(i)));
+            parts[i * 2 + 2] = i == posts.size() - 1 ? CLOSE.duplicate() : SEPARATOR.duplicate();
+        }
+        return Unpooled.wrappedBuffer(parts.length, parts);
+    }
+
+    /**
+     * @return JSON of the given revision of the post
+     */
+    public byte[] fragment(Post post) {
+        if (!caching) {
+            return jsonCodec.encode(post);
+        }
+        var cached = cache.getIfPresent(post.getId());
+        if (cached != null && cached.getEtag().equals(post.getEtag())) {
+            return cached.getBody();
+        }
+        return serialize(post).getBody();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private CachedPost serialize(Post post) {
+        var serialized = new CachedPost(jsonCodec.encode(post), post.getEtag(), post.getUpdateDate());
+        cache.put(post.getId(), serialized);
+        return serialized;
+    }
+
+    @Override
+    public void onApplicationEvent(PostMutationEvent event) {
+        if (event.getPost() != null && caching) {
+            serialize(event.getPost());
+        } else {
+            cache.invalidate(event.getPostId());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package my.blog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.jackson.codec.JsonMediaTypeCodec;
+import my.blog.events.PostMutationEvent;
+import my.blog.models.Post;
+
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded cache of serialized {@code GET /posts/{id}} bodies.
+ * Entries expire after a fixed time and are dropped as soon as the post is written.
+ */
+@Singleton
+public class PostResponseCache implements ApplicationEventListener<PostMutationEvent> {
+
+    private final JsonMediaTypeCodec jsonCodec;
+
+    private final Cache<Long, CachedPost> cache;
+
+    public PostResponseCache(JsonMediaTypeCodec jsonCodec,
+                             @Value("${blog.posts.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${blog.posts.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.jsonCodec = jsonCodec;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached JSON of the post, serializing the loaded post on a miss.
+     * Missing posts are not cached.
+     */
+    public Optional<CachedPost> get(long id, LongFunction<Optional<Post>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).map(this::serialize).orElse(null)));
+    }
+
+    public void invalidate(long id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private CachedPost serialize(Post post) {
+        var etag = post.getEtag();
+        var lastModified = post.getUpdateDate();
+        return new CachedPost(jsonCodec.encode(post), etag, lastModified);
+    }
+
+    @Override
+    public void onApplicationEvent(PostMutationEvent event) {
+        invalidate(event.getPostId());
+    }
+}
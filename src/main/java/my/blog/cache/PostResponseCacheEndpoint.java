@@ -0,0 +1,29 @@
+package my.blog.cache;
+
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Endpoint(id = "postcache")
+public class PostResponseCacheEndpoint {
+
+    private final PostResponseCache cache;
+
+    public PostResponseCacheEndpoint(PostResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Read
+    public Map<String, Object> stats() {
+        var stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.size());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package my.blog.controllers;
+
+import my.blog.encoding.ResponseCompressor;
+import my.blog.models.Post;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Validators and precondition checks for conditional GET requests (RFC 7232).
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Weak comparison of If-None-Match against the current entity tag, as the RFC requires for GET.
+     * Tags of compressed representations match the tag of the identity representation they were derived from.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || ResponseCompressor.identityEtag(tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean notModifiedSince(String ifModifiedSince, LocalDateTime lastModified) {
+        if (ifModifiedSince == null || lastModified == null) {
+            return false;
+        }
+        try {
+            var since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return !toHttpTime(lastModified).isAfter(since);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    static String httpDate(LocalDateTime dateTime) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(toHttpTime(dateTime));
+    }
+
+    /**
+     * Entity tag of a page, derived from the revisions of its posts so the page is never serialized for it.
+     */
+    static String pageEtag(List<Post> page) {
+        long hash = 1125899906842597L;
+        for (Post post : page) {
+            hash = 31 * hash + post.getId();
+            hash = 31 * hash + post.getVersion();
+            hash = 31 * hash + (post.getGuid() == null ? 0 : post.getGuid().hashCode());
+        }
+        return "\"p" + page.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    static LocalDateTime lastModified(List<Post> page) {
+        LocalDateTime lastModified = null;
+        for (Post post : page) {
+            var updateDate = post.getUpdateDate();
+            if (updateDate != null && (lastModified == null || updateDate.isAfter(lastModified))) {
+                lastModified = updateDate;
+            }
+        }
+        return lastModified;
+    }
+
+    private static ZonedDateTime toHttpTime(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC)
+                .truncatedTo(ChronoUnit.SECONDS);
+    }
+}
@@ -0,0 +1,121 @@
+package my.blog.controllers;
+
+import io.micronaut.jackson.codec.JsonMediaTypeCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import my.blog.repositories.PostContent;
+
+import javax.inject.Singleton;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a post as the same JSON as the codec without decoding its text: the post is serialized with a placeholder
+ * text and the stored UTF-8 bytes are spliced in its place. Text without characters to escape is passed to the
+ * response as a view of the stored bytes, other text is escaped into a new buffer.
+ */
+@Singleton
+public class PostContentEncoder {
+
+    private static final String TEXT_PLACEHOLDER = "\u0000text\u0000";
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final JsonMediaTypeCodec jsonCodec;
+
+    private final byte[] encodedPlaceholder;
+
+    public PostContentEncoder(JsonMediaTypeCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
+        this.encodedPlaceholder = jsonCodec.encode(TEXT_PLACEHOLDER);
+    }
+
+    public ByteBuf encode(PostContent content) {
+        var post = content.getPost();
+        var text = content.getText();
+        if (text == null) {
+            return Unpooled.wrappedBuffer(jsonCodec.encode(post));
+        }
+        post.setText(TEXT_PLACEHOLDER);
+        byte[] json = jsonCodec.encode(post);
+        int start = indexOf(json, encodedPlaceholder);
+        if (start < 0) {
+            post.setText(StandardCharsets.UTF_8.decode(text.duplicate()).toString());
+            return Unpooled.wrappedBuffer(jsonCodec.encode(post));
+        }
+        int end = start + encodedPlaceholder.length;
+        return Unpooled.wrappedBuffer(
+                Unpooled.wrappedBuffer(json, 0, start + 1),
+                escape(text.duplicate()),
+                Unpooled.wrappedBuffer(json, end - 1, json.length - end + 1));
+    }
+
+    /**
+     * Escapes the characters Jackson escapes by default: quote, backslash and control characters.
+     */
+    private static ByteBuf escape(ByteBuffer text) {
+        int escapes = 0;
+        for (int i = text.position(); i < text.limit(); i++) {
+            if (needsEscape(text.get(i))) {
+                escapes++;
+            }
+        }
+        if (escapes == 0) {
+            return Unpooled.wrappedBuffer(text);
+        }
+        ByteBuf escaped = Unpooled.buffer(text.remaining() + escapes * 5);
+        for (int i = text.position(); i < text.limit(); i++) {
+            byte b = text.get(i);
+            if (!needsEscape(b)) {
+                escaped.writeByte(b);
+                continue;
+            }
+            escaped.writeByte('\\');
+            switch (b) {
+                case '"':
+                case '\\':
+                    escaped.writeByte(b);
+                    break;
+                case '\b':
+                    escaped.writeByte('b');
+                    break;
+                case '\t':
+                    escaped.writeByte('t');
+                    break;
+                case '\n':
+                    escaped.writeByte('n');
+                    break;
+                case '\f':
+                    escaped.writeByte('f');
+                    break;
+                case '\r':
+                    escaped.writeByte('r');
+                    break;
+                default:
+                    escaped.writeByte('u').writeByte('0').writeByte('0')
+                            .writeByte(HEX[b >> 4]).writeByte(HEX[b & 0xF]);
+            }
+        }
+        return escaped;
+    }
+
+    /**
+     * Bytes of multi-byte UTF-8 sequences are negative and never escaped.
+     */
+    private static boolean needsEscape(byte b) {
+        return (b >= 0 && b < 0x20) || b == '"' || b == '\\';
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = 0; i <= bytes.length - part.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
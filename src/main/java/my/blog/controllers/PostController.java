@@ -1,42 +1,202 @@
 package my.blog.controllers;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.http.sse.Event;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.micronaut.security.annotation.Secured;
 import io.micronaut.security.rules.SecurityRule;
+import io.reactivex.Flowable;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import my.blog.cache.CachedPost;
+import my.blog.cache.PostJsonFragments;
+import my.blog.cache.PostResponseCache;
+import my.blog.controllers.responses.BatchItemResult;
 import my.blog.errors.CustomHttpResponseError;
+import my.blog.encoding.CborMediaTypeCodec;
+import my.blog.events.ChangeFeedGapException;
+import my.blog.execution.BlogExecutorFactory;
 import my.blog.models.Post;
+import my.blog.repositories.PostContent;
+import my.blog.repositories.VersionConflictException;
+import my.blog.repositories.bodies.PostBodyConfiguration;
+import my.blog.services.PostCursor;
+import my.blog.services.PostFilter;
 import my.blog.services.PostService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Secured(SecurityRule.IS_ANONYMOUS)
 @Controller("/posts")
+@ExecuteOn(BlogExecutorFactory.NAME)
 public class PostController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    public static final String GAP_EVENT = "gap";
+
     Logger logger = LoggerFactory.getLogger(PostController.class);
 
     @Inject
     private PostService service;
 
-    @Operation(summary = "Returns all public posts")
+    @Inject
+    private PostResponseCache responseCache;
+
+    @Inject
+    private PostContentEncoder contentEncoder;
+
+    @Inject
+    private PostJsonFragments fragments;
+
+    @Value("${blog.storage.bodies.type:heap}")
+    private String bodiesType;
+
+    @Value("${blog.posts.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${blog.posts.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${blog.posts.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Operation(summary = "Returns a page of public posts, optionally of one author and/or created in [from, to); " +
+            "the cursor of the next page is sent in the " + NEXT_CURSOR_HEADER + " header")
     @ApiResponse(
             content = @Content(mediaType = MediaType.APPLICATION_JSON)
     )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid paging parameters"
+    )
+    @Tag(name = "posts")
+    @Get(produces = {MediaType.APPLICATION_JSON, CborMediaTypeCodec.APPLICATION_CBOR})
+    public HttpResponse getAllPosts(@Nullable @QueryValue Integer limit,
+                                    @Nullable @QueryValue Long offset,
+                                    @Nullable @QueryValue String cursor,
+                                    @Nullable @QueryValue String order,
+                                    @Nullable @QueryValue String author,
+                                    @Nullable @QueryValue LocalDateTime from,
+                                    @Nullable @QueryValue LocalDateTime to,
+                                    @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                    @Nullable @Header(HttpHeaders.ACCEPT) String accept) {
+        boolean cbor = CborMediaTypeCodec.isPreferred(accept);
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            return badRequest("Limit must be positive");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+
+        PostFilter filter;
+        try {
+            filter = author == null && from == null && to == null ? PostFilter.none() : PostFilter.of(author, from, to);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        if (offset != null) {
+            if (!filter.isEmpty()) {
+                return badRequest("Offset can not be combined with filters, use cursor");
+            }
+            if (cursor != null) {
+                return badRequest("Offset and cursor can not be combined");
+            }
+            if (offset < 0) {
+                return badRequest("Offset must not be negative");
+            }
+            return pageResponse(service.getPosts(offset, pageSize), ifNoneMatch, cbor);
+        }
+
+        PostCursor position;
+        List<Post> page;
+        try {
+            if (cursor != null) {
+                position = PostCursor.decode(cursor);
+            } else {
+                position = PostCursor.start(order == null && filter.requiredOrder() != null ? filter.requiredOrder() : parseOrder(order));
+            }
+            page = service.getPostsAfter(position, filter, pageSize);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        MutableHttpResponse<?> response = pageResponse(page, ifNoneMatch, cbor);
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, PostCursor.after(position.getOrder(), page.get(page.size() - 1)).encode());
+        }
+        return response;
+    }
+
+    @Operation(summary = "Streams all public posts as a chunked JSON array or as a JSON stream")
+    @ApiResponse(
+            content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON_STREAM),
+                    @Content(mediaType = MediaType.APPLICATION_JSON)
+            }
+    )
     @Tag(name = "posts")
-    @Get
-    public List<Post> getAllPosts() {
-        return service.getAllPosts();
+    @Get(value = "/stream", produces = {MediaType.APPLICATION_JSON_STREAM, MediaType.APPLICATION_JSON})
+    public Flowable<Post> streamAllPosts() {
+        return service.streamAllPosts();
+    }
+
+    @Operation(summary = "Server-sent events of created, updated and deleted posts, the event id is the epoch of the feed and the sequence of the change; " +
+            "resumes after the event id given by the after parameter or the Last-Event-ID header, otherwise follows new changes. " +
+            "A gap event tells that the changes after the event are no longer available, or the event is from another feed, and the posts have to be reloaded")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM)
+    )
+    @Tag(name = "posts")
+    @Get(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM)
+    public Flowable<Event<?>> streamChanges(@Nullable @QueryValue String after, @Nullable @Header(LAST_EVENT_ID_HEADER) String lastEventId) {
+        return service.streamChanges(after != null ? after : lastEventId)
+                .<Event<?>>map(change -> Event.of(change)
+                        .id(change.getId())
+                        .name(change.getType().name()))
+                .onErrorResumeNext(e -> e instanceof ChangeFeedGapException
+                        ? Flowable.just(gap((ChangeFeedGapException) e))
+                        : Flowable.<Event<?>>error(e));
+    }
+
+    @Operation(summary = "Search posts by words of title, text or author, best match first")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Empty query or invalid limit"
+    )
+    @Tag(name = "search_posts")
+    @Get("/search")
+    public HttpResponse searchPosts(@QueryValue String q, @Nullable @QueryValue Integer limit) {
+        if (q.isBlank()) {
+            return badRequest("Query must not be empty");
+        }
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            return badRequest("Limit must be positive");
+        }
+        return HttpResponse.ok(fragments.encodeList(service.searchPosts(q, Math.min(pageSize, maxPageSize))))
+                .contentType(MediaType.APPLICATION_JSON_TYPE);
     }
 
     @Operation(summary = "Return post by given identifier")
@@ -44,24 +204,39 @@ public class PostController {
             content = @Content(mediaType = MediaType.APPLICATION_JSON)
 
     )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Post was not modified since the given revision"
+    )
     @ApiResponse(
             responseCode = "400",
             description = "Invalid given identifier"
     )
     @Tag(name = "post_by_id")
-    @Get("/{id}")
-    public HttpResponse getById(@PathVariable long id) {
-        Optional<Post> foundPost = service.getById(id);
+    @Get(value = "/{id}", produces = {MediaType.APPLICATION_JSON, CborMediaTypeCodec.APPLICATION_CBOR})
+    public HttpResponse getById(@PathVariable long id,
+                                @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                @Nullable @Header(HttpHeaders.IF_MODIFIED_SINCE) String ifModifiedSince,
+                                @Nullable @Header(HttpHeaders.ACCEPT) String accept) {
+        if (CborMediaTypeCodec.isPreferred(accept)) {
+            Optional<Post> found = service.getById(id);
+            if (found.isEmpty()) {
+                return notFound(id);
+            }
+            var post = found.get();
+            return conditionalResponse(cborEtag(post.getEtag()), post.getUpdateDate(), ifNoneMatch, ifModifiedSince,
+                    CborMediaTypeCodec.APPLICATION_CBOR_TYPE, () -> post);
+        }
+        if (PostBodyConfiguration.MAPPED.equals(bodiesType)) {
+            return getContentById(id, ifNoneMatch, ifModifiedSince);
+        }
+        Optional<CachedPost> foundPost = responseCache.get(id, service::getById);
         if (foundPost.isEmpty()) {
-            var errorMsg = "Not found post with id: " + id;
-            logger.error(errorMsg);
-            return HttpResponse.notFound(CustomHttpResponseError.builder()
-                    .status(HttpStatus.NOT_FOUND.getCode())
-                    .error(HttpStatus.NOT_FOUND.name())
-                    .message(errorMsg)
-                    .build());
+            return notFound(id);
         }
-        return HttpResponse.ok(foundPost.get());
+        var post = foundPost.get();
+        return conditionalResponse(post.getEtag(), post.getLastModified(), ifNoneMatch, ifModifiedSince,
+                MediaType.APPLICATION_JSON_TYPE, post::getBody);
     }
 
     @Operation(summary = "Update post")
@@ -73,11 +248,25 @@ public class PostController {
             responseCode = "406",
             description = "Failure update post with given id"
     )
+    @ApiResponse(
+            responseCode = "409",
+            description = "Post was changed since the given version"
+    )
     @Tag(name = "update_post")
     @Secured(SecurityRule.IS_AUTHENTICATED)
     @Put(value = "/update", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
     public HttpResponse updatePost(@Body Post post) {
-        var updatedPost = service.updatePost(post);
+        Optional<Post> updatedPost;
+        try {
+            updatedPost = service.updatePost(post);
+        } catch (VersionConflictException e) {
+            logger.error(e.getMessage());
+            return HttpResponse.status(HttpStatus.CONFLICT).body(CustomHttpResponseError.builder()
+                    .status(HttpStatus.CONFLICT.getCode())
+                    .error(HttpStatus.CONFLICT.name())
+                    .message(e.getMessage())
+                    .build());
+        }
         if (updatedPost.isEmpty()) {
             var errorMsg = "Failure update post with id: " + post.getId();
             logger.error(errorMsg);
@@ -130,4 +319,210 @@ public class PostController {
         }
         return HttpResponse.ok(service.createPost(post));
     }
+
+    @Operation(summary = "Creating new posts in one batch, the result of every post is reported separately")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Batch is larger than the maximum batch size"
+    )
+    @Tag(name = "create_posts")
+    @Secured(SecurityRule.IS_AUTHENTICATED)
+    @Put(value = "/batch/create", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
+    public HttpResponse createNewPosts(@Body List<Post> posts) {
+        if (posts.size() > maxBatchSize) {
+            return badRequest("Batch must not contain more than " + maxBatchSize + " posts");
+        }
+        List<BatchItemResult> results = new ArrayList<>(posts.size());
+        List<Post> accepted = new ArrayList<>(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            var post = posts.get(i);
+            if (post.getId() > 0) {
+                results.add(rejectedItem(i, post.getId(), "Identifier of new post must be 0 or null!"));
+            } else {
+                results.add(null);
+                accepted.add(post);
+            }
+        }
+        Iterator<Post> created = service.createPosts(accepted).iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, acceptedItem(i, created.next()));
+            }
+        }
+        return HttpResponse.ok(results);
+    }
+
+    @Operation(summary = "Update posts in one batch, the result of every post is reported separately")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Batch is larger than the maximum batch size"
+    )
+    @Tag(name = "update_posts")
+    @Secured(SecurityRule.IS_AUTHENTICATED)
+    @Put(value = "/batch/update", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
+    public HttpResponse updatePosts(@Body List<Post> posts) {
+        if (posts.size() > maxBatchSize) {
+            return badRequest("Batch must not contain more than " + maxBatchSize + " posts");
+        }
+        List<Optional<Post>> updatedPosts = service.updatePosts(posts);
+        List<BatchItemResult> results = new ArrayList<>(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            var id = posts.get(i).getId();
+            var updatedPost = updatedPosts.get(i);
+            results.add(updatedPost.isPresent()
+                    ? acceptedItem(i, updatedPost.get())
+                    : rejectedItem(i, id, "Failure update post with id: " + id));
+        }
+        return HttpResponse.ok(results);
+    }
+
+    @Operation(summary = "Delete posts by ids in one batch, the result of every id is reported separately")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Batch is larger than the maximum batch size"
+    )
+    @Tag(name = "delete_posts_by_ids")
+    @Secured(SecurityRule.IS_AUTHENTICATED)
+    @Delete(value = "/batch", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
+    public HttpResponse removePostsByIds(@Body List<Long> ids) {
+        if (ids.size() > maxBatchSize) {
+            return badRequest("Batch must not contain more than " + maxBatchSize + " posts");
+        }
+        List<Boolean> deleted = service.deletePostsByIds(ids);
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            long id = ids.get(i);
+            results.add(deleted.get(i)
+                    ? BatchItemResult.builder().index(i).id(id).status(HttpStatus.OK.getCode()).build()
+                    : rejectedItem(i, id, "Failure delete post with id: " + id));
+        }
+        return HttpResponse.ok(results);
+    }
+
+    /**
+     * Texts in mapped storage are written to the response from the stored bytes and are not cached on the heap.
+     */
+    private HttpResponse getContentById(long id, String ifNoneMatch, String ifModifiedSince) {
+        Optional<PostContent> foundContent = service.getContentById(id);
+        if (foundContent.isEmpty()) {
+            return notFound(id);
+        }
+        var content = foundContent.get();
+        var post = content.getPost();
+        return conditionalResponse(post.getEtag(), post.getUpdateDate(), ifNoneMatch, ifModifiedSince,
+                MediaType.APPLICATION_JSON_TYPE, () -> contentEncoder.encode(content));
+    }
+
+    private MutableHttpResponse<?> conditionalResponse(String etag, LocalDateTime lastModified,
+                                                       String ifNoneMatch, String ifModifiedSince,
+                                                       MediaType contentType, Supplier<Object> body) {
+        boolean notModified = ifNoneMatch != null
+                ? ConditionalRequests.matches(ifNoneMatch, etag)
+                : ConditionalRequests.notModifiedSince(ifModifiedSince, lastModified);
+        MutableHttpResponse<?> response = notModified
+                ? HttpResponse.notModified()
+                : HttpResponse.ok(body.get()).contentType(contentType);
+        response.header(HttpHeaders.ETAG, etag);
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (lastModified != null) {
+            response.header(HttpHeaders.LAST_MODIFIED, ConditionalRequests.httpDate(lastModified));
+        }
+        return response;
+    }
+
+    private Event<?> gap(ChangeFeedGapException e) {
+        logger.error(e.getMessage());
+        return Event.of(CustomHttpResponseError.builder()
+                .status(HttpStatus.GONE.getCode())
+                .error(HttpStatus.GONE.name())
+                .message(e.getMessage())
+                .build())
+                .name(GAP_EVENT);
+    }
+
+    private HttpResponse<CustomHttpResponseError> notFound(long id) {
+        var errorMsg = "Not found post with id: " + id;
+        logger.error(errorMsg);
+        return HttpResponse.notFound(CustomHttpResponseError.builder()
+                .status(HttpStatus.NOT_FOUND.getCode())
+                .error(HttpStatus.NOT_FOUND.name())
+                .message(errorMsg)
+                .build());
+    }
+
+    /**
+     * List pages are validated by entity tag only: deleting a post does not move the page's Last-Modified.
+     */
+    private MutableHttpResponse<?> pageResponse(List<Post> page, String ifNoneMatch, boolean cbor) {
+        var etag = cbor ? cborEtag(ConditionalRequests.pageEtag(page)) : ConditionalRequests.pageEtag(page);
+        MutableHttpResponse<?> response;
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            response = HttpResponse.notModified();
+        } else if (cbor) {
+            response = HttpResponse.ok(page).contentType(CborMediaTypeCodec.APPLICATION_CBOR_TYPE);
+        } else {
+            response = HttpResponse.ok(fragments.encodeList(page)).contentType(MediaType.APPLICATION_JSON_TYPE);
+        }
+        response.header(HttpHeaders.ETAG, etag);
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        var lastModified = ConditionalRequests.lastModified(page);
+        if (lastModified != null) {
+            response.header(HttpHeaders.LAST_MODIFIED, ConditionalRequests.httpDate(lastModified));
+        }
+        return response;
+    }
+
+    /**
+     * Representations differ in their bytes, so they need different strong entity tags.
+     */
+    private static String cborEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-cbor\"";
+    }
+
+    private BatchItemResult acceptedItem(int index, Post post) {
+        return BatchItemResult.builder()
+                .index(index)
+                .id(post.getId())
+                .status(HttpStatus.OK.getCode())
+                .post(post)
+                .build();
+    }
+
+    private BatchItemResult rejectedItem(int index, long id, String errorMsg) {
+        logger.error(errorMsg);
+        return BatchItemResult.builder()
+                .index(index)
+                .id(id)
+                .status(HttpStatus.NOT_ACCEPTABLE.getCode())
+                .message(errorMsg)
+                .build();
+    }
+
+    private PostCursor.Order parseOrder(String order) {
+        if (order == null || order.equals("id")) {
+            return PostCursor.Order.ID;
+        }
+        if (order.equals("createDate")) {
+            return PostCursor.Order.CREATE_DATE;
+        }
+        throw new IllegalArgumentException("Unsupported order: " + order);
+    }
+
+    private HttpResponse<CustomHttpResponseError> badRequest(String errorMsg) {
+        logger.error(errorMsg);
+        return HttpResponse.badRequest(CustomHttpResponseError.builder()
+                .status(HttpStatus.BAD_REQUEST.getCode())
+                .error(HttpStatus.BAD_REQUEST.name())
+                .message(errorMsg)
+                .build());
+    }
 }
@@ -0,0 +1,177 @@
+package my.blog.controllers;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.*;
+import io.micronaut.security.annotation.Secured;
+import io.micronaut.security.rules.SecurityRule;
+import io.reactivex.Single;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import my.blog.errors.CustomHttpResponseError;
+import my.blog.models.Post;
+import my.blog.repositories.VersionConflictException;
+import my.blog.services.PostCursor;
+import my.blog.services.ReactivePostService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+
+/**
+ * Non-blocking variant of {@link PostController}, the handlers only assemble the reactive pipeline,
+ * so they stay on the event loop whatever the storage is.
+ */
+@Secured(SecurityRule.IS_ANONYMOUS)
+@Controller("/rx/posts")
+public class ReactivePostController {
+
+    Logger logger = LoggerFactory.getLogger(ReactivePostController.class);
+
+    @Inject
+    private ReactivePostService service;
+
+    @Value("${blog.posts.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${blog.posts.page.max-size:100}")
+    private int maxPageSize;
+
+    @Operation(summary = "Returns a page of public posts, the cursor of the next page is sent in the " + PostController.NEXT_CURSOR_HEADER + " header")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid paging parameters"
+    )
+    @Tag(name = "posts_rx")
+    @Get
+    public Single<HttpResponse<?>> getPosts(@Nullable @QueryValue Integer limit,
+                                            @Nullable @QueryValue String cursor,
+                                            @Nullable @QueryValue String order) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            return Single.just(badRequest("Limit must be positive"));
+        }
+        int size = Math.min(pageSize, maxPageSize);
+        PostCursor position;
+        try {
+            position = cursor != null ? PostCursor.decode(cursor) : PostCursor.start(parseOrder(order));
+        } catch (IllegalArgumentException e) {
+            return Single.just(badRequest(e.getMessage()));
+        }
+        return service.getPostsAfter(position, size)
+                .toList(size)
+                .<HttpResponse<?>>map(page -> {
+                    MutableHttpResponse<?> response = HttpResponse.ok(page);
+                    if (page.size() == size) {
+                        response.header(PostController.NEXT_CURSOR_HEADER, PostCursor.after(position.getOrder(), page.get(page.size() - 1)).encode());
+                    }
+                    return response;
+                });
+    }
+
+    @Operation(summary = "Search posts by words of title, text or author, best match first")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @Tag(name = "search_posts_rx")
+    @Get("/search")
+    public Single<HttpResponse<?>> searchPosts(@QueryValue String q, @Nullable @QueryValue Integer limit) {
+        if (q.isBlank()) {
+            return Single.just(badRequest("Query must not be empty"));
+        }
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            return Single.just(badRequest("Limit must be positive"));
+        }
+        return service.searchPosts(q, Math.min(pageSize, maxPageSize))
+                .toList()
+                .<HttpResponse<?>>map(HttpResponse::ok);
+    }
+
+    @Operation(summary = "Return post by given identifier")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @Tag(name = "post_by_id_rx")
+    @Get("/{id}")
+    public Single<HttpResponse<?>> getById(@PathVariable long id) {
+        return service.getById(id)
+                .<HttpResponse<?>>map(HttpResponse::ok)
+                .switchIfEmpty(Single.fromCallable(() -> error(HttpStatus.NOT_FOUND, "Not found post with id: " + id)));
+    }
+
+    @Operation(summary = "Update post")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @ApiResponse(
+            responseCode = "409",
+            description = "Post was changed since the given version"
+    )
+    @Tag(name = "update_post_rx")
+    @Secured(SecurityRule.IS_AUTHENTICATED)
+    @Put(value = "/update", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
+    public Single<HttpResponse<?>> updatePost(@Body Post post) {
+        return service.updatePost(post)
+                .<HttpResponse<?>>map(HttpResponse::ok)
+                .switchIfEmpty(Single.fromCallable(() -> error(HttpStatus.NOT_ACCEPTABLE, "Failure update post with id: " + post.getId())))
+                .onErrorResumeNext(e -> e instanceof VersionConflictException
+                        ? Single.just(error(HttpStatus.CONFLICT, e.getMessage()))
+                        : Single.<HttpResponse<?>>error(e));
+    }
+
+    @Operation(summary = "Delete post by id")
+    @Tag(name = "delete_post_by_id_rx")
+    @Secured(SecurityRule.IS_AUTHENTICATED)
+    @Delete(value = "/{id}", consumes = MediaType.APPLICATION_JSON)
+    public Single<HttpResponse<?>> removePostById(@PathVariable long id) {
+        return service.deletePostById(id)
+                .<HttpResponse<?>>map(deleted -> deleted ? HttpResponse.ok() : error(HttpStatus.NOT_ACCEPTABLE, "Failure delete post with id: " + id));
+    }
+
+    @Operation(summary = "Creating a new post")
+    @ApiResponse(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @Tag(name = "create_post_rx")
+    @Secured(SecurityRule.IS_AUTHENTICATED)
+    @Put(value = "create", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
+    public Single<HttpResponse<?>> createNewPost(@Body Post post) {
+        if (post.getId() > 0) {
+            return Single.just(error(HttpStatus.NOT_ACCEPTABLE, "Identifier of new post must be 0 or null!"));
+        }
+        return service.createPost(post).<HttpResponse<?>>map(HttpResponse::ok);
+    }
+
+    private PostCursor.Order parseOrder(String order) {
+        if (order == null || order.equals("id")) {
+            return PostCursor.Order.ID;
+        }
+        if (order.equals("createDate")) {
+            return PostCursor.Order.CREATE_DATE;
+        }
+        throw new IllegalArgumentException("Unsupported order: " + order);
+    }
+
+    private HttpResponse<?> badRequest(String errorMsg) {
+        return error(HttpStatus.BAD_REQUEST, errorMsg);
+    }
+
+    private HttpResponse<?> error(HttpStatus status, String errorMsg) {
+        logger.error(errorMsg);
+        return HttpResponse.status(status).body(CustomHttpResponseError.builder()
+                .status(status.getCode())
+                .error(status.name())
+                .message(errorMsg)
+                .build());
+    }
+}
@@ -0,0 +1,26 @@
+package my.blog.controllers.responses;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import my.blog.models.Post;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Introspected
+public class BatchItemResult implements CustomHttpResponse {
+
+    private int index;
+
+    private long id;
+
+    private int status;
+
+    private String message;
+
+    private Post post;
+}
@@ -0,0 +1,71 @@
+package my.blog.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.codec.CodecConfiguration;
+import io.micronaut.jackson.annotation.JacksonFeatures;
+import io.micronaut.jackson.codec.JacksonMediaTypeCodec;
+import io.micronaut.runtime.ApplicationConfiguration;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Binary CBOR form of the JSON API, chosen by clients with {@code Accept: application/cbor}.
+ * The mapper takes over the serialization settings of the application's JSON mapper,
+ * so a post has the same properties in both forms.
+ */
+@Singleton
+@Named(CborMediaTypeCodec.CONFIGURATION_QUALIFIER)
+public class CborMediaTypeCodec extends JacksonMediaTypeCodec {
+
+    public static final String CONFIGURATION_QUALIFIER = "cbor";
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    public static final MediaType APPLICATION_CBOR_TYPE = new MediaType(APPLICATION_CBOR);
+
+    public CborMediaTypeCodec(ObjectMapper objectMapper,
+                              ApplicationConfiguration applicationConfiguration,
+                              @Named(CONFIGURATION_QUALIFIER) @Nullable CodecConfiguration codecConfiguration) {
+        super(cborMapper(objectMapper), applicationConfiguration, codecConfiguration, APPLICATION_CBOR_TYPE);
+    }
+
+    /**
+     * Whether CBOR comes before JSON in the Accept header, or JSON is not accepted at all.
+     */
+    public static boolean isPreferred(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        for (String candidate : accept.split(",")) {
+            int parameters = candidate.indexOf(';');
+            var type = (parameters < 0 ? candidate : candidate.substring(0, parameters)).trim();
+            if (type.equalsIgnoreCase(APPLICATION_CBOR)) {
+                return true;
+            }
+            if (type.equalsIgnoreCase(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public JacksonMediaTypeCodec cloneWithFeatures(JacksonFeatures jacksonFeatures) {
+        ObjectMapper copy = getObjectMapper().copy();
+        jacksonFeatures.getDeserializationFeatures().forEach(copy::configure);
+        jacksonFeatures.getSerializationFeatures().forEach(copy::configure);
+        return new CborMediaTypeCodec(copy, applicationConfiguration, codecConfiguration);
+    }
+
+    private static CBORMapper cborMapper(ObjectMapper objectMapper) {
+        CBORMapper cborMapper = new CBORMapper();
+        cborMapper.setConfig(objectMapper.getSerializationConfig());
+        cborMapper.setConfig(objectMapper.getDeserializationConfig());
+        cborMapper.findAndRegisterModules();
+        return cborMapper;
+    }
+}
@@ -0,0 +1,19 @@
+package my.blog.encoding;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+@ConfigurationProperties("blog.http.compression")
+@Getter
+@Setter
+public class CompressionConfiguration {
+
+    private boolean enabled = true;
+
+    private int threshold = 1024;
+
+    private int level = 6;
+
+    private int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+}
@@ -0,0 +1,93 @@
+package my.blog.encoding;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.reactivestreams.Publisher;
+
+/**
+ * Compresses the already serialized post responses (pages, search results and single posts) with the pooled
+ * deflaters of {@link ResponseCompressor}. Responses with other bodies are compressed by the server's own
+ * compression, which skips responses that already carry a Content-Encoding.
+ * Compressed responses get an entity tag of their own, suffixed with the coding like the CBOR representation's.
+ */
+@Filter({"/posts", "/posts/**"})
+@Requires(property = "blog.http.compression.enabled", notEquals = "false")
+public class ResponseCompressionFilter implements HttpServerFilter {
+
+    private final ResponseCompressor compressor;
+
+    public ResponseCompressionFilter(ResponseCompressor compressor) {
+        this.compressor = compressor;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        var encoding = compressor.negotiate(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null) {
+            return chain.proceed(request);
+        }
+        return Publishers.map(chain.proceed(request), response -> compress(request, response, encoding));
+    }
+
+    @SuppressWarnings("unchecked")
+    private MutableHttpResponse<?> compress(HttpRequest<?> request, MutableHttpResponse<?> response, String encoding) {
+        if (response.getHeaders().contains(HttpHeaders.CONTENT_ENCODING)) {
+            return response;
+        }
+        if (response.getStatus() == HttpStatus.NOT_MODIFIED) {
+            return notModified(request, response, encoding);
+        }
+        Object body = response.body();
+        ByteBuf content;
+        if (body instanceof ByteBuf) {
+            content = (ByteBuf) body;
+        } else if (body instanceof byte[]) {
+            content = Unpooled.wrappedBuffer((byte[]) body);
+        } else {
+            return response;
+        }
+        if (!compressor.shouldCompress(content.readableBytes())) {
+            return response;
+        }
+        ByteBuf compressed = compressor.compress(content, encoding);
+        content.release();
+        ((MutableHttpResponse<Object>) response).body(compressed);
+        response.header(HttpHeaders.CONTENT_ENCODING, encoding);
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        var etag = response.getHeaders().get(HttpHeaders.ETAG);
+        if (etag != null) {
+            replaceEtag(response, ResponseCompressor.encodedEtag(etag, encoding));
+        }
+        return response;
+    }
+
+    /**
+     * A 304 carries the tag the client revalidated, so a cached compressed response keeps its own tag.
+     */
+    private MutableHttpResponse<?> notModified(HttpRequest<?> request, MutableHttpResponse<?> response, String encoding) {
+        var etag = response.getHeaders().get(HttpHeaders.ETAG);
+        var ifNoneMatch = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+        if (etag != null && ifNoneMatch != null) {
+            var encodedEtag = ResponseCompressor.encodedEtag(etag, encoding);
+            if (ifNoneMatch.contains(encodedEtag)) {
+                replaceEtag(response, encodedEtag);
+            }
+        }
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return response;
+    }
+
+    private static void replaceEtag(MutableHttpResponse<?> response, String etag) {
+        response.getHeaders().remove(HttpHeaders.ETAG);
+        response.header(HttpHeaders.ETAG, etag);
+    }
+}
@@ -0,0 +1,171 @@
+package my.blog.encoding;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import javax.inject.Singleton;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip and deflate compression of serialized response bodies with pooled {@link Deflater}s,
+ * so a request does not allocate the deflater's native state. Deflaters beyond the pool size are
+ * created for a burst and ended afterwards.
+ */
+@Singleton
+public class ResponseCompressor {
+
+    public static final String GZIP = "gzip";
+
+    public static final String DEFLATE = "deflate";
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final int OUTPUT_CHUNK = 8192;
+
+    private final int threshold;
+
+    private final int level;
+
+    private final BlockingQueue<Deflater> gzipDeflaters;
+
+    private final BlockingQueue<Deflater> deflateDeflaters;
+
+    public ResponseCompressor(CompressionConfiguration configuration) {
+        this.threshold = configuration.getThreshold();
+        this.level = configuration.getLevel();
+        this.gzipDeflaters = new ArrayBlockingQueue<>(Math.max(1, configuration.getPoolSize()));
+        this.deflateDeflaters = new ArrayBlockingQueue<>(Math.max(1, configuration.getPoolSize()));
+    }
+
+    /**
+     * @return {@link #GZIP} or {@link #DEFLATE} by the client's preference, gzip on equal preference,
+     * or null when the client accepts neither
+     */
+    public String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        float gzip = -1;
+        float deflate = -1;
+        float any = -1;
+        for (String candidate : acceptEncoding.split(",")) {
+            int parameters = candidate.indexOf(';');
+            var coding = (parameters < 0 ? candidate : candidate.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+            float quality = parameters < 0 ? 1 : quality(candidate.substring(parameters + 1));
+            switch (coding) {
+                case GZIP:
+                case "x-gzip":
+                    gzip = quality;
+                    break;
+                case DEFLATE:
+                    deflate = quality;
+                    break;
+                case "*":
+                    any = quality;
+                    break;
+                default:
+            }
+        }
+        gzip = gzip < 0 ? any : gzip;
+        deflate = deflate < 0 ? any : deflate;
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? GZIP : DEFLATE;
+    }
+
+    /**
+     * Entity tag of the compressed representation, its bytes differ from the identity response so a strong tag
+     * has to name the coding.
+     */
+    public static String encodedEtag(String etag, String encoding) {
+        if (etag.length() < 2 || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+    }
+
+    /**
+     * @return the entity tag the given tag of a compressed representation was derived from, the tag itself otherwise
+     */
+    public static String identityEtag(String etag) {
+        for (String encoding : new String[]{GZIP, DEFLATE}) {
+            var suffix = "-" + encoding + "\"";
+            if (etag.endsWith(suffix)) {
+                return etag.substring(0, etag.length() - suffix.length()) + "\"";
+            }
+        }
+        return etag;
+    }
+
+    public boolean shouldCompress(int size) {
+        return size >= threshold;
+    }
+
+    /**
+     * Compresses the readable bytes of the content, the content itself is not changed.
+     */
+    public ByteBuf compress(ByteBuf content, String encoding) {
+        boolean gzip = GZIP.equals(encoding);
+        BlockingQueue<Deflater> pool = gzip ? gzipDeflaters : deflateDeflaters;
+        Deflater deflater = pool.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, gzip);
+        }
+        try {
+            ByteBuf compressed = Unpooled.buffer(content.readableBytes() / 4 + GZIP_HEADER.length + 8);
+            CRC32 crc = null;
+            if (gzip) {
+                crc = new CRC32();
+                compressed.writeBytes(GZIP_HEADER);
+            }
+            for (ByteBuffer input : content.nioBuffers()) {
+                if (crc != null) {
+                    crc.update(input.duplicate());
+                }
+                deflater.setInput(input);
+                while (!deflater.needsInput()) {
+                    deflate(deflater, compressed);
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate(deflater, compressed);
+            }
+            if (crc != null) {
+                compressed.writeIntLE((int) crc.getValue()).writeIntLE(content.readableBytes());
+            }
+            return compressed;
+        } finally {
+            deflater.reset();
+            if (!pool.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static void deflate(Deflater deflater, ByteBuf compressed) {
+        compressed.ensureWritable(OUTPUT_CHUNK);
+        int written = deflater.deflate(compressed.nioBuffer(compressed.writerIndex(), compressed.writableBytes()));
+        compressed.writerIndex(compressed.writerIndex() + written);
+    }
+
+    private static float quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            var trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
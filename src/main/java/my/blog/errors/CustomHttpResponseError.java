@@ -1,5 +1,6 @@
 package my.blog.errors;
 
+import io.micronaut.core.annotation.Introspected;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,7 @@ import my.blog.controllers.responses.CustomHttpResponse;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Introspected
 public class CustomHttpResponseError implements CustomHttpResponse {
 
     private int status;
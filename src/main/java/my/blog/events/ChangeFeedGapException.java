@@ -0,0 +1,21 @@
+package my.blog.events;
+
+import lombok.Getter;
+
+/**
+ * Thrown when changes after the requested event are no longer buffered or the event is not from this feed,
+ * the subscriber has to reload the posts and follow the feed from its current event.
+ */
+@Getter
+public class ChangeFeedGapException extends RuntimeException {
+
+    private final String requestedEventId;
+
+    private final String lastEventId;
+
+    public ChangeFeedGapException(String requestedEventId, String lastEventId) {
+        super("Changes after event " + requestedEventId + " are no longer available, last event is " + lastEventId);
+        this.requestedEventId = requestedEventId;
+        this.lastEventId = lastEventId;
+    }
+}
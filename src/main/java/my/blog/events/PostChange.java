@@ -0,0 +1,37 @@
+package my.blog.events;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.Getter;
+import my.blog.models.Post;
+
+/**
+ * Entry of the {@link PostChangeFeed}, a post mutation numbered in the order it was appended to the feed.
+ */
+@Getter
+@Introspected
+public class PostChange {
+
+    /**
+     * Event id of the change, the sequence prefixed by the epoch of the feed
+     */
+    private final String id;
+
+    private final long sequence;
+
+    private final PostMutationEvent.Type type;
+
+    private final long postId;
+
+    /**
+     * State of the post after the change, null for {@link PostMutationEvent.Type#DELETED}
+     */
+    private final Post post;
+
+    public PostChange(String id, long sequence, PostMutationEvent event) {
+        this.id = id;
+        this.sequence = sequence;
+        this.type = event.getType();
+        this.postId = event.getPostId();
+        this.post = event.getPost();
+    }
+}
@@ -0,0 +1,114 @@
+package my.blog.events;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.reactivex.Flowable;
+import io.reactivex.processors.FlowableProcessor;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.Schedulers;
+
+import javax.inject.Singleton;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ordered feed of the post mutations published by the post service, the most recent of them kept in a ring buffer.
+ * A subscriber reads the ring only when it requests more changes and holds nothing but its position, appends
+ * merely wake it up, so a slow subscriber costs no memory. A subscriber that falls further behind than the ring
+ * holds gets a {@link ChangeFeedGapException}. Changes of the same post can be appended out of their version order
+ * by concurrent writers, the version of the post tells which is newer.
+ * <p>
+ * Sequences start over with every feed, so the event id of a change is the sequence prefixed by the random epoch
+ * of the feed that appended it. An event id of another process or instance does not match the epoch and gets a gap
+ * instead of the unrelated changes that happen to have the same sequence here.
+ */
+@Singleton
+public class PostChangeFeed implements ApplicationEventListener<PostMutationEvent> {
+
+    private static final char EPOCH_SEPARATOR = '-';
+
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+
+    private final AtomicReferenceArray<PostChange> ring;
+
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    private final FlowableProcessor<Long> appended = PublishProcessor.<Long>create().toSerialized();
+
+    public PostChangeFeed(@Value("${blog.posts.changes.buffer-size:1024}") int bufferSize) {
+        this.ring = new AtomicReferenceArray<>(Math.max(1, bufferSize));
+    }
+
+    @Override
+    public void onApplicationEvent(PostMutationEvent event) {
+        long sequence = lastSequence.incrementAndGet();
+        ring.set(index(sequence), new PostChange(eventId(sequence), sequence, event));
+        appended.onNext(sequence);
+    }
+
+    /**
+     * @param lastEventId event id of the last change seen, null to follow only changes appended from now on
+     * @return changes after the event followed by every change appended later, never completes
+     */
+    public Flowable<PostChange> changesAfter(@Nullable String lastEventId) {
+        return Flowable.defer(() -> {
+            long last = lastSequence.get();
+            long start = lastEventId == null ? last : sequenceOf(lastEventId);
+            if (start < 0 || start > last) {
+                return Flowable.error(new ChangeFeedGapException(lastEventId, eventId(last)));
+            }
+            AtomicLong position = new AtomicLong(start);
+            return appended.onBackpressureLatest()
+                    .startWith(start)
+                    .observeOn(Schedulers.computation(), false, 1)
+                    .concatMap(ignored -> buffered(position), 1);
+        });
+    }
+
+    public long lastSequence() {
+        return lastSequence.get();
+    }
+
+    public String eventId(long sequence) {
+        return epoch + EPOCH_SEPARATOR + sequence;
+    }
+
+    /**
+     * @return sequence of an event id of this feed, -1 for an event id of another feed or not an event id at all
+     */
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf(EPOCH_SEPARATOR);
+        if (separator != epoch.length() || !eventId.startsWith(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Emits the buffered changes after the position one per request and completes at the first one not yet appended.
+     */
+    private Flowable<PostChange> buffered(AtomicLong position) {
+        return Flowable.generate(emitter -> {
+            long wanted = position.get() + 1;
+            PostChange change = ring.get(index(wanted));
+            if (change == null || change.getSequence() < wanted) {
+                emitter.onComplete();
+            } else if (change.getSequence() > wanted) {
+                emitter.onError(new ChangeFeedGapException(eventId(position.get()), eventId(lastSequence.get())));
+            } else {
+                position.set(wanted);
+                emitter.onNext(change);
+            }
+        });
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % ring.length());
+    }
+}
@@ -0,0 +1,42 @@
+package my.blog.events;
+
+import lombok.Getter;
+import my.blog.models.Post;
+
+/**
+ * Published by the post service after a post was created, updated or deleted.
+ */
+@Getter
+public class PostMutationEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+
+    private final long postId;
+
+    /**
+     * State of the post after the mutation, null for {@link Type#DELETED}
+     */
+    private final Post post;
+
+    private PostMutationEvent(Type type, long postId, Post post) {
+        this.type = type;
+        this.postId = postId;
+        this.post = post;
+    }
+
+    public static PostMutationEvent created(Post post) {
+        return new PostMutationEvent(Type.CREATED, post.getId(), post);
+    }
+
+    public static PostMutationEvent updated(Post post) {
+        return new PostMutationEvent(Type.UPDATED, post.getId(), post);
+    }
+
+    public static PostMutationEvent deleted(long postId) {
+        return new PostMutationEvent(Type.DELETED, postId, null);
+    }
+}
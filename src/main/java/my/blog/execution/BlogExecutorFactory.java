@@ -0,0 +1,72 @@
+package my.blog.execution;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor of the blocking controller work, chosen by {@code blog.execution.mode}.
+ * Controllers refer to it with {@code @ExecuteOn(BlogExecutorFactory.NAME)}.
+ */
+@Factory
+public class BlogExecutorFactory {
+
+    public static final String NAME = "blog";
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogExecutorFactory.class);
+
+    @Singleton
+    @Named(NAME)
+    @Bean(preDestroy = "shutdown")
+    public ExecutorService blogExecutor(ExecutionConfiguration configuration) {
+        switch (configuration.getMode()) {
+            case THREAD_POOL:
+                return threadPool(configuration);
+            case VIRTUAL_THREADS:
+                ExecutorService virtualThreads = virtualThreadPerTask();
+                if (virtualThreads != null) {
+                    return virtualThreads;
+                }
+                logger.warn("Virtual threads are not available on Java {}, falling back to the thread pool",
+                        System.getProperty("java.version"));
+                return threadPool(configuration);
+            default:
+                return new DirectExecutorService();
+        }
+    }
+
+    private static ExecutorService threadPool(ExecutionConfiguration configuration) {
+        var threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(configuration.getPoolThreads(), configuration.getPoolThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(configuration.getPoolQueueSize()),
+                runnable -> new Thread(runnable, NAME + "-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * Looked up reflectively, the build targets a JDK without virtual threads.
+     */
+    private static ExecutorService virtualThreadPerTask() {
+        try {
+            var factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can not create virtual thread executor", e);
+        }
+    }
+}
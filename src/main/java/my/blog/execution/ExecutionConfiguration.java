@@ -0,0 +1,17 @@
+package my.blog.execution;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+@ConfigurationProperties("blog.execution")
+@Getter
+@Setter
+public class ExecutionConfiguration {
+
+    private ExecutionMode mode = ExecutionMode.EVENT_LOOP;
+
+    private int poolThreads = 64;
+
+    private int poolQueueSize = 1024;
+}
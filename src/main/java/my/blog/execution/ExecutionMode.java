@@ -0,0 +1,22 @@
+package my.blog.execution;
+
+/**
+ * Where blocking controller work runs.
+ */
+public enum ExecutionMode {
+
+    /**
+     * On the Netty event loop, only for storage that never blocks.
+     */
+    EVENT_LOOP,
+
+    /**
+     * On a bounded pool of platform threads.
+     */
+    THREAD_POOL,
+
+    /**
+     * On a new virtual thread per request, falls back to the thread pool when the JDK has no virtual threads.
+     */
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,42 @@
+package my.blog.execution;
+
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.security.filters.SecurityFilter;
+import org.reactivestreams.Publisher;
+
+import javax.inject.Named;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Answers 503 with Retry-After while every thread and queue slot of the blog thread pool is taken,
+ * before the request is handed to the pool: the pool's rejection happens on scheduling the route,
+ * where it does not reach {@link RejectedExecutionExceptionHandler}. Other execution modes are not bounded.
+ */
+@Filter({"/posts", "/posts/**"})
+public class ExecutorSaturationFilter implements HttpServerFilter {
+
+    private final ThreadPoolExecutor pool;
+
+    public ExecutorSaturationFilter(@Named(BlogExecutorFactory.NAME) ExecutorService executor) {
+        this.pool = executor instanceof ThreadPoolExecutor ? (ThreadPoolExecutor) executor : null;
+    }
+
+    @Override
+    public int getOrder() {
+        return SecurityFilter.ORDER + 2;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        if (pool != null && pool.getQueue().remainingCapacity() == 0 && pool.getActiveCount() >= pool.getMaximumPoolSize()) {
+            return Publishers.just(RejectedExecutionExceptionHandler.serviceUnavailable());
+        }
+        return chain.proceed(request);
+    }
+}
@@ -0,0 +1,41 @@
+package my.blog.execution;
+
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+import my.blog.errors.CustomHttpResponseError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Answers work refused by the full blog thread pool with 503 and Retry-After instead of a server error.
+ */
+@Produces
+@Singleton
+public class RejectedExecutionExceptionHandler implements ExceptionHandler<RejectedExecutionException, HttpResponse<CustomHttpResponseError>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RejectedExecutionExceptionHandler.class);
+
+    @Override
+    public HttpResponse<CustomHttpResponseError> handle(HttpRequest request, RejectedExecutionException exception) {
+        logger.warn("Request {} {} rejected, blog executor is saturated", request.getMethod(), request.getPath());
+        return serviceUnavailable();
+    }
+
+    static MutableHttpResponse<CustomHttpResponseError> serviceUnavailable() {
+        return HttpResponse.<CustomHttpResponseError>status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(CustomHttpResponseError.builder()
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.getCode())
+                        .error(HttpStatus.SERVICE_UNAVAILABLE.name())
+                        .message("Server is busy, try again later")
+                        .build());
+    }
+}
@@ -1,34 +1,156 @@
 package my.blog.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.security.authentication.*;
 import io.reactivex.BackpressureStrategy;
 import io.reactivex.Flowable;
+import my.blog.repositories.UserRepository;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.inject.Named;
 import javax.inject.Singleton;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Checks credentials against the {@link UserRepository}.
+ * The lookup and the password hash run on the bounded password hashing executor, never on the event loop.
+ * A successful login is remembered for a short time as a keyed fingerprint of the password,
+ * so repeated logins skip the hash, and identities with too many failures are refused early.
+ * An unknown login is hashed against a dummy hash, so the response time does not tell which users exist.
+ */
 @Singleton
 public class AuthProvider implements AuthenticationProvider {
 
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
     private final Logger logger = LoggerFactory.getLogger(AuthProvider.class);
 
+    private final UserRepository userRepository;
+
+    private final PasswordHasher passwordHasher;
+
+    private final LoginThrottle throttle;
+
+    private final ExecutorService hashingExecutor;
+
+    private final Cache<String, RecentLogin> recentLogins;
+
+    private final SecretKeySpec fingerprintKey;
+
+    private final String dummyHash;
+
+    public AuthProvider(UserRepository userRepository,
+                        PasswordHasher passwordHasher,
+                        LoginThrottle throttle,
+                        @Named(PasswordHashingExecutorFactory.NAME) ExecutorService hashingExecutor,
+                        LoginConfiguration configuration) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.throttle = throttle;
+        this.hashingExecutor = hashingExecutor;
+        this.recentLogins = Caffeine.newBuilder()
+                .maximumSize(configuration.getCacheMaximumSize())
+                .expireAfterWrite(configuration.getCacheTtl())
+                .build();
+        var random = new SecureRandom();
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        this.fingerprintKey = new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+        byte[] dummyPassword = new byte[16];
+        random.nextBytes(dummyPassword);
+        this.dummyHash = passwordHasher.hash(Base64.getEncoder().encodeToString(dummyPassword));
+    }
+
     @Override
     public Publisher<AuthenticationResponse> authenticate(@Nullable HttpRequest<?> httpRequest, AuthenticationRequest<?, ?> authenticationRequest) {
-        return Flowable.create(emitter -> {
-            Object login = authenticationRequest.getIdentity();
+        return Flowable.defer(() -> {
+            String login = String.valueOf(authenticationRequest.getIdentity());
+            String password = String.valueOf(authenticationRequest.getSecret());
             logger.debug("User {} tries to login...", login);
-            if (login.equals("blog@gmail.net") &&
-                    authenticationRequest.getSecret().equals("123456")) {
-                emitter.onNext(new UserDetails((String) login, new ArrayList<>()));
-                emitter.onComplete();
-            } else {
-                emitter.onError(new AuthenticationException(new AuthenticationFailed("Wrong username or password")));
+            if (throttle.isBlocked(login)) {
+                return failed("Too many failed logins, try again later");
+            }
+            byte[] fingerprint = fingerprint(login, password);
+            var recent = recentLogins.getIfPresent(login);
+            if (recent != null && MessageDigest.isEqual(recent.fingerprint, fingerprint)) {
+                return Flowable.just(new UserDetails(login, recent.roles));
+            }
+
+            CompletableFuture<Optional<UserDetails>> verification;
+            try {
+                verification = CompletableFuture.supplyAsync(() -> verify(login, password, fingerprint), hashingExecutor);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Login of {} rejected, password hashing queue is full", login);
+                return failed("Too many concurrent logins, try again later");
             }
-        }, BackpressureStrategy.ERROR);
+            return Flowable.create(emitter -> verification.whenComplete((userDetails, error) -> {
+                if (error != null) {
+                    emitter.onError(error instanceof CompletionException ? error.getCause() : error);
+                } else if (userDetails.isPresent()) {
+                    emitter.onNext(userDetails.get());
+                    emitter.onComplete();
+                } else {
+                    emitter.onError(new AuthenticationException(new AuthenticationFailed("Wrong username or password")));
+                }
+            }), BackpressureStrategy.ERROR);
+        });
+    }
+
+    private Optional<UserDetails> verify(String login, String password, byte[] fingerprint) {
+        var user = userRepository.findByUsername(login);
+        String passwordHash = user.isPresent() ? user.get().getPasswordHash() : dummyHash;
+        if (!passwordHasher.matches(password, passwordHash) || user.isEmpty()) {
+            throttle.failed(login);
+            return Optional.empty();
+        }
+        throttle.succeeded(login);
+        List<String> roles = user.get().getRoles();
+        recentLogins.put(login, new RecentLogin(fingerprint, roles));
+        return Optional.of(new UserDetails(login, roles));
+    }
+
+    private byte[] fingerprint(String login, String password) {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKey);
+            mac.update(login.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(FINGERPRINT_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static Flowable<AuthenticationResponse> failed(String message) {
+        return Flowable.error(new AuthenticationException(new AuthenticationFailed(message)));
+    }
+
+    private static final class RecentLogin {
+
+        private final byte[] fingerprint;
+
+        private final List<String> roles;
+
+        private RecentLogin(byte[] fingerprint, List<String> roles) {
+            this.fingerprint = fingerprint;
+            this.roles = roles;
+        }
     }
 }
@@ -0,0 +1,197 @@
+package my.blog.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nimbusds.jwt.JWTParser;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.jwt.encryption.EncryptionConfiguration;
+import io.micronaut.security.token.jwt.generator.claims.JwtClaims;
+import io.micronaut.security.token.jwt.signature.SignatureConfiguration;
+import io.micronaut.security.token.jwt.validator.GenericJwtClaimsValidator;
+import io.micronaut.security.token.jwt.validator.JwtAuthenticationFactory;
+import io.micronaut.security.token.jwt.validator.JwtTokenValidator;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bearer token validator that verifies each distinct token once.
+ * Verified authentications are kept in a bounded cache keyed by the SHA-256 digest of the token,
+ * an entry expires at the token's {@code exp} claim and never outlives {@code max-ttl}.
+ * Claims validators run on the first verification only, so they must not depend on the request.
+ * Revoked tokens are rejected until they expire; revocations are local to this instance.
+ */
+@Singleton
+@Replaces(JwtTokenValidator.class)
+@Requires(property = "blog.security.token-cache.enabled", notEquals = "false")
+public class CachingJwtTokenValidator extends JwtTokenValidator {
+
+    private final Cache<String, Authentication> verified;
+
+    private final Cache<String, Instant> revoked;
+
+    private final LongAdder verifications = new LongAdder();
+
+    private final LongAdder verificationNanos = new LongAdder();
+
+    public CachingJwtTokenValidator(Collection<SignatureConfiguration> signatureConfigurations,
+                                    Collection<EncryptionConfiguration> encryptionConfigurations,
+                                    Collection<GenericJwtClaimsValidator> genericJwtClaimsValidators,
+                                    JwtAuthenticationFactory jwtAuthenticationFactory,
+                                    @Value("${blog.security.token-cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${blog.security.token-cache.max-ttl:1h}") Duration maxTtl) {
+        super(signatureConfigurations, encryptionConfigurations, genericJwtClaimsValidators, jwtAuthenticationFactory);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpiresAt<Authentication>(authentication -> toInstant(authentication.getAttributes().get(JwtClaims.EXPIRATION_TIME)), maxTtl))
+                .recordStats()
+                .build();
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(new ExpiresAt<Instant>(expiration -> expiration, null))
+                .build();
+    }
+
+    @Override
+    public Publisher<Authentication> validateToken(String token, @Nullable HttpRequest<?> request) {
+        String key = digest(token);
+        if (revoked.getIfPresent(key) != null) {
+            return Flowable.empty();
+        }
+        Authentication authentication = verified.getIfPresent(key);
+        if (authentication != null) {
+            return Flowable.just(authentication);
+        }
+        return Flowable.defer(() -> {
+            long start = System.nanoTime();
+            return Flowable.fromPublisher(super.validateToken(token, request))
+                    .doOnNext(valid -> {
+                        if (revoked.getIfPresent(key) == null) {
+                            verified.put(key, valid);
+                        }
+                    })
+                    .doOnTerminate(() -> {
+                        verifications.increment();
+                        verificationNanos.add(System.nanoTime() - start);
+                    });
+        });
+    }
+
+    /**
+     * Rejects the token on this instance until it expires, tokens without expiration stay revoked.
+     *
+     * @return false if the token is not a parseable JWT
+     */
+    public boolean revoke(String token) {
+        Instant expiration;
+        try {
+            Date exp = JWTParser.parse(token).getJWTClaimsSet().getExpirationTime();
+            expiration = exp == null ? Instant.MAX : exp.toInstant();
+        } catch (ParseException e) {
+            return false;
+        }
+        String key = digest(token);
+        revoked.put(key, expiration);
+        verified.invalidate(key);
+        return true;
+    }
+
+    public CacheStats stats() {
+        return verified.stats();
+    }
+
+    public long size() {
+        return verified.estimatedSize();
+    }
+
+    public long revokedCount() {
+        return revoked.estimatedSize();
+    }
+
+    public long verificationCount() {
+        return verifications.sum();
+    }
+
+    public long verificationNanos() {
+        return verificationNanos.sum();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Instant toInstant(Object exp) {
+        if (exp instanceof Date) {
+            return ((Date) exp).toInstant();
+        }
+        if (exp instanceof Instant) {
+            return (Instant) exp;
+        }
+        if (exp instanceof Number) {
+            return Instant.ofEpochSecond(((Number) exp).longValue());
+        }
+        return null;
+    }
+
+    /**
+     * Expires an entry at the instant derived from its value, at most after the cap when one is given.
+     * Without a cap an unknown instant never expires.
+     */
+    private static final class ExpiresAt<V> implements Expiry<String, V> {
+
+        private final Function<V, Instant> expiration;
+
+        private final long capNanos;
+
+        private ExpiresAt(Function<V, Instant> expiration, @Nullable Duration cap) {
+            this.expiration = expiration;
+            this.capNanos = cap == null ? Long.MAX_VALUE : cap.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, V value, long currentTime) {
+            Instant expiresAt = expiration.apply(value);
+            if (expiresAt == null || expiresAt.equals(Instant.MAX)) {
+                return capNanos;
+            }
+            Duration remaining = Duration.between(Instant.now(), expiresAt);
+            if (remaining.isNegative()) {
+                return 0L;
+            }
+            return remaining.getSeconds() >= capNanos / 1_000_000_000L ? capNanos : Math.min(capNanos, remaining.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
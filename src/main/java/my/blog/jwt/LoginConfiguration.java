@@ -0,0 +1,27 @@
+package my.blog.jwt;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+@ConfigurationProperties("blog.security.login")
+@Getter
+@Setter
+public class LoginConfiguration {
+
+    private int hashingThreads = 2;
+
+    private int hashingQueueSize = 64;
+
+    private int pbkdf2Iterations = 120_000;
+
+    private int cacheMaximumSize = 1000;
+
+    private Duration cacheTtl = Duration.ofSeconds(30);
+
+    private int maxFailures = 5;
+
+    private Duration failureWindow = Duration.ofMinutes(1);
+}
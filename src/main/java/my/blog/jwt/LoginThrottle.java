@@ -0,0 +1,39 @@
+package my.blog.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import javax.inject.Singleton;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts failed logins per identity in a fixed window that starts with the first failure.
+ * An identity that reached the limit is refused without checking the password until the window ends.
+ */
+@Singleton
+public class LoginThrottle {
+
+    private final int maxFailures;
+
+    private final Cache<String, AtomicInteger> failures;
+
+    public LoginThrottle(LoginConfiguration configuration) {
+        this.maxFailures = configuration.getMaxFailures();
+        this.failures = Caffeine.newBuilder()
+                .expireAfterWrite(configuration.getFailureWindow())
+                .build();
+    }
+
+    public boolean isBlocked(String identity) {
+        var count = failures.getIfPresent(identity);
+        return count != null && count.get() >= maxFailures;
+    }
+
+    public void failed(String identity) {
+        failures.get(identity, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void succeeded(String identity) {
+        failures.invalidate(identity);
+    }
+}
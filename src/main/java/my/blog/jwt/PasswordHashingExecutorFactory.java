@@ -0,0 +1,38 @@
+package my.blog.jwt;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Factory
+public class PasswordHashingExecutorFactory {
+
+    public static final String NAME = "password-hashing";
+
+    /**
+     * Fixed pool with a bounded queue, a login burst beyond the queue is rejected instead of
+     * piling up work, so password hashing never competes with the event loop for more than its threads.
+     */
+    @Singleton
+    @Named(NAME)
+    @Bean(preDestroy = "shutdown")
+    public ExecutorService passwordHashingExecutor(LoginConfiguration configuration) {
+        var threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(configuration.getHashingThreads(), configuration.getHashingThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(configuration.getHashingQueueSize()),
+                runnable -> {
+                    var thread = new Thread(runnable, NAME + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
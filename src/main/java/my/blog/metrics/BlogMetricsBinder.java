@@ -0,0 +1,66 @@
+package my.blog.metrics;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import my.blog.cache.PostJsonFragments;
+import my.blog.cache.PostResponseCache;
+import my.blog.repositories.PostRepository;
+import my.blog.repositories.bodies.PostBodyStore;
+import my.blog.search.PostSearchIndex;
+
+import javax.inject.Singleton;
+
+/**
+ * Size gauges of the post store, the search index, the response cache and the mapped post texts, read only when scraped.
+ */
+@Singleton
+public class BlogMetricsBinder implements MeterBinder {
+
+    private final PostRepository repository;
+
+    private final PostSearchIndex searchIndex;
+
+    private final PostResponseCache responseCache;
+
+    private final PostJsonFragments fragments;
+
+    private final PostBodyStore bodyStore;
+
+    public BlogMetricsBinder(PostRepository repository, PostSearchIndex searchIndex, PostResponseCache responseCache,
+                             PostJsonFragments fragments, @Nullable PostBodyStore bodyStore) {
+        this.repository = repository;
+        this.searchIndex = searchIndex;
+        this.responseCache = responseCache;
+        this.fragments = fragments;
+        this.bodyStore = bodyStore;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("blog.posts.count", repository, PostRepository::countPosts)
+                .description("Posts in the repository")
+                .register(registry);
+        Gauge.builder("blog.search.documents", searchIndex, PostSearchIndex::size)
+                .description("Posts in the search index")
+                .register(registry);
+        Gauge.builder("blog.cache.posts.size", responseCache, PostResponseCache::size)
+                .description("Cached post responses")
+                .register(registry);
+        FunctionCounter.builder("blog.cache.posts.hits", responseCache, cache -> cache.stats().hitCount())
+                .register(registry);
+        FunctionCounter.builder("blog.cache.posts.misses", responseCache, cache -> cache.stats().missCount())
+                .register(registry);
+        Gauge.builder("blog.cache.fragments.size", fragments, PostJsonFragments::size)
+                .description("Cached post JSON fragments of list responses")
+                .register(registry);
+        if (bodyStore != null) {
+            Gauge.builder("blog.posts.bodies.bytes", bodyStore, PostBodyStore::storedBytes)
+                    .description("Bytes of post texts held outside of the heap")
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package my.blog.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.web.router.MethodBasedRouteMatch;
+import org.reactivestreams.Publisher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histogram per controller method and outcome, tagged with the method name (getById, login, ...).
+ * Timers of a method are registered on its first request and found by the route's method afterwards.
+ */
+@Filter("/**")
+public class EndpointMetricsFilter implements HttpServerFilter {
+
+    private static final String[] OUTCOMES = {"SUCCESS", "CLIENT_ERROR", "SERVER_ERROR"};
+
+    private final MeterRegistry registry;
+
+    private final Map<ExecutableMethod<?, ?>, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public EndpointMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        long start = System.nanoTime();
+        return Publishers.map(chain.proceed(request), response -> {
+            record(request, response.getStatus().getCode(), System.nanoTime() - start);
+            return response;
+        });
+    }
+
+    private void record(HttpRequest<?> request, int status, long nanos) {
+        var route = request.getAttribute(HttpAttributes.ROUTE_MATCH, MethodBasedRouteMatch.class);
+        if (route.isEmpty()) {
+            return;
+        }
+        ExecutableMethod<?, ?> method = route.get().getExecutableMethod();
+        int outcome = status >= 500 ? 2 : status >= 400 ? 1 : 0;
+        timers.computeIfAbsent(method, this::register)[outcome].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] register(ExecutableMethod<?, ?> method) {
+        Timer[] outcomes = new Timer[OUTCOMES.length];
+        for (int i = 0; i < OUTCOMES.length; i++) {
+            outcomes[i] = Timer.builder("blog.http.requests")
+                    .description("Request latency per endpoint")
+                    .tag("controller", method.getDeclaringType().getSimpleName())
+                    .tag("endpoint", method.getMethodName())
+                    .tag("outcome", OUTCOMES[i])
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,76 @@
+package my.blog.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency histograms of {@link my.blog.repositories.PostRepository} calls per outcome, a call that throws
+ * is timed as an error. Timers are registered up front and looked up by ordinal.
+ */
+@Singleton
+public class RepositoryMetrics {
+
+    public enum Operation {
+        FIND_ALL("findAllPosts"),
+        FIND_PAGE("findPosts"),
+        FIND_AFTER_ID("findPostsAfterId"),
+        FIND_AFTER_CREATE_DATE("findPostsAfterCreateDate"),
+        FIND_BY_AUTHOR("findPostsByAuthor"),
+        FIND_BY_AUTHOR_CREATED_BETWEEN("findPostsByAuthorCreatedBetween"),
+        FIND_CREATED_BETWEEN("findPostsCreatedBetween"),
+        FIND_BY_ID("findById"),
+        FIND_CONTENT_BY_ID("findContentById"),
+        SEARCH("searchPosts"),
+        UPDATE("updatePost"),
+        DELETE("deletePostById"),
+        CREATE("createPost"),
+        CREATE_BATCH("createPosts"),
+        UPDATE_BATCH("updatePosts"),
+        DELETE_BATCH("deletePostsByIds");
+
+        private final String method;
+
+        Operation(String method) {
+            this.method = method;
+        }
+    }
+
+    private static final String[] OUTCOMES = {"SUCCESS", "ERROR"};
+
+    private final Timer[][] timers;
+
+    public RepositoryMetrics(MeterRegistry registry) {
+        Operation[] operations = Operation.values();
+        timers = new Timer[operations.length][OUTCOMES.length];
+        for (Operation operation : operations) {
+            for (int i = 0; i < OUTCOMES.length; i++) {
+                timers[operation.ordinal()][i] = Timer.builder("blog.repository.calls")
+                        .description("PostRepository call latency")
+                        .tag("method", operation.method)
+                        .tag("outcome", OUTCOMES[i])
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+        }
+    }
+
+    /**
+     * Times the call and passes its result through, a call that throws is recorded with the error outcome
+     * and the exception is rethrown.
+     */
+    public <T> T timed(Operation operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        int outcome = 1;
+        try {
+            T result = call.get();
+            outcome = 0;
+            return result;
+        } finally {
+            timers[operation.ordinal()][outcome].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
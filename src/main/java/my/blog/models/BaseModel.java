@@ -1,6 +1,8 @@
 package my.blog.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -17,4 +19,35 @@ public abstract class BaseModel {
 
     @Schema(description = "Global unique identifier", hidden = true)
     private String guid;
+
+    @Schema(description = "Revision of entity, incremented on every change", hidden = true)
+    private long version;
+
+    @Schema(hidden = true)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String etag;
+
+    public void setGuid(String guid) {
+        this.guid = guid;
+        this.etag = null;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+        this.etag = null;
+    }
+
+    /**
+     * Strong entity tag of the current revision, computed once per revision.
+     */
+    @JsonIgnore
+    public String getEtag() {
+        var current = etag;
+        if (current == null) {
+            current = "\"" + guid + "-" + version + "\"";
+            etag = current;
+        }
+        return current;
+    }
 }
@@ -1,5 +1,6 @@
 package my.blog.models;
 
+import io.micronaut.core.annotation.Introspected;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
@@ -15,6 +16,7 @@ import java.util.Objects;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Introspected
 public class Post extends BaseModel {
 
     @Schema(description = "Post header", required = true)
@@ -29,6 +31,9 @@ public class Post extends BaseModel {
     @Schema(description = "Creation date of post", required = true)
     private LocalDateTime createDate;
 
+    @Schema(description = "Date of the last change of post")
+    private LocalDateTime updateDate;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -55,6 +60,7 @@ public class Post extends BaseModel {
                 ", text='" + text + '\'' +
                 ", author='" + author + '\'' +
                 ", createDate=" + createDate +
+                ", updateDate=" + updateDate +
                 '}';
     }
 }
@@ -0,0 +1,33 @@
+package my.blog.models;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Blog account, the password is kept only as a salted hash produced by {@link my.blog.jwt.PasswordHasher}.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Introspected
+public class User {
+
+    private String username;
+
+    private String passwordHash;
+
+    @Builder.Default
+    private List<String> roles = List.of();
+
+    @Override
+    public String toString() {
+        return "User{" +
+                "username='" + username + '\'' +
+                ", roles=" + roles +
+                '}';
+    }
+}
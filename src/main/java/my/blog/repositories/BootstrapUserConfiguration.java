@@ -0,0 +1,27 @@
+package my.blog.repositories;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+import my.blog.models.User;
+
+/**
+ * Account every user store starts with, so a fresh database can be logged into.
+ * The hash is produced by {@link my.blog.jwt.PasswordHasher}.
+ */
+@ConfigurationProperties("blog.security.bootstrap-user")
+@Getter
+@Setter
+public class BootstrapUserConfiguration {
+
+    private String username = "blog@gmail.net";
+
+    private String passwordHash = "pbkdf2$120000$bXlCbG9nU2FsdDEyMzQ1Ng==$b05ga/+mzoKf3r2Srn+T1jm35NpgTjPNrkE6G3gwJL8=";
+
+    public User toUser() {
+        return User.builder()
+                .username(username)
+                .passwordHash(passwordHash)
+                .build();
+    }
+}
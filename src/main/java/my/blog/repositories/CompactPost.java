@@ -0,0 +1,180 @@
+package my.blog.repositories;
+
+import my.blog.models.Post;
+import my.blog.repositories.bodies.PostBodyStore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Storage form of a post inside {@link MemoryStorage}, immutable and a single object besides its byte arrays.
+ * The guid is kept as the two longs of its UUID, dates as UTC epoch seconds and nanos, title and text as UTF-8
+ * and the author as the instance shared by all posts of the author.
+ * A guid that does not round-trip through {@link UUID} is kept as given.
+ * With a {@link PostBodyStore} the text is kept there and the record holds only its reference.
+ */
+final class CompactPost {
+
+    /**
+     * Epoch second of a missing date, below that of {@link LocalDateTime#MIN} so missing dates sort first.
+     */
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final long ON_HEAP = -1L;
+
+    final long id;
+
+    final long version;
+
+    final long createSecond;
+
+    final int createNano;
+
+    private final long updateSecond;
+
+    private final int updateNano;
+
+    private final long guidMost;
+
+    private final long guidLeast;
+
+    private final String rawGuid;
+
+    final String author;
+
+    private final byte[] title;
+
+    private final byte[] text;
+
+    private final long textReference;
+
+    private CompactPost(Post post, String author, PostBodyStore bodies) {
+        this.id = post.getId();
+        this.version = post.getVersion();
+        this.createSecond = epochSecond(post.getCreateDate());
+        this.createNano = nano(post.getCreateDate());
+        this.updateSecond = epochSecond(post.getUpdateDate());
+        this.updateNano = nano(post.getUpdateDate());
+        this.author = author;
+        this.title = encode(post.getTitle());
+        byte[] utf8Text = encode(post.getText());
+        if (bodies != null && utf8Text != null) {
+            this.text = null;
+            this.textReference = bodies.write(utf8Text);
+        } else {
+            this.text = utf8Text;
+            this.textReference = ON_HEAP;
+        }
+        UUID uuid = parseUuid(post.getGuid());
+        if (uuid != null) {
+            this.guidMost = uuid.getMostSignificantBits();
+            this.guidLeast = uuid.getLeastSignificantBits();
+            this.rawGuid = null;
+        } else {
+            this.guidMost = 0L;
+            this.guidLeast = 0L;
+            this.rawGuid = post.getGuid();
+        }
+    }
+
+    /**
+     * @param author canonical instance of the post's author
+     * @param bodies store of the text, or null to keep it in the record
+     */
+    static CompactPost of(Post post, String author, PostBodyStore bodies) {
+        return new CompactPost(post, author, bodies);
+    }
+
+    /**
+     * @return a new, independent post, or null when the text was released by a concurrent write
+     */
+    Post toPost(PostBodyStore bodies) {
+        String decodedText;
+        if (textReference == ON_HEAP) {
+            decodedText = decode(text);
+        } else {
+            ByteBuffer stored = bodies.read(textReference);
+            if (stored == null) {
+                return null;
+            }
+            decodedText = StandardCharsets.UTF_8.decode(stored).toString();
+        }
+        Post post = metadata();
+        post.setText(decodedText);
+        return post;
+    }
+
+    /**
+     * @return the post without its text and a view of the UTF-8 text,
+     * or null when the text was released by a concurrent write
+     */
+    PostContent toContent(PostBodyStore bodies) {
+        ByteBuffer body;
+        if (textReference == ON_HEAP) {
+            body = text == null ? null : ByteBuffer.wrap(text).asReadOnlyBuffer();
+        } else {
+            body = bodies.read(textReference);
+            if (body == null) {
+                return null;
+            }
+        }
+        return new PostContent(metadata(), body);
+    }
+
+    void release(PostBodyStore bodies) {
+        if (textReference != ON_HEAP) {
+            bodies.release(textReference);
+        }
+    }
+
+    private Post metadata() {
+        Post post = Post.builder()
+                .title(decode(title))
+                .author(author)
+                .createDate(dateTime(createSecond, createNano))
+                .updateDate(dateTime(updateSecond, updateNano))
+                .build();
+        post.setId(id);
+        post.setGuid(rawGuid != null || (guidMost == 0L && guidLeast == 0L) ? rawGuid : new UUID(guidMost, guidLeast).toString());
+        post.setVersion(version);
+        return post;
+    }
+
+    static long epochSecond(LocalDateTime dateTime) {
+        return dateTime == null ? NO_DATE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static int nano(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.getNano();
+    }
+
+    private static LocalDateTime dateTime(long epochSecond, int nano) {
+        return epochSecond == NO_DATE ? null : LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private static UUID parseUuid(String guid) {
+        if (guid == null) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(guid);
+            if ((uuid.getMostSignificantBits() != 0L || uuid.getLeastSignificantBits() != 0L) && uuid.toString().equals(guid)) {
+                return uuid;
+            }
+        } catch (IllegalArgumentException e) {
+            // not a canonical UUID, kept as given
+        }
+        return null;
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -1,22 +1,85 @@
 package my.blog.repositories;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import my.blog.models.Post;
+import my.blog.repositories.bodies.PostBodyStore;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
+/**
+ * In-memory post store.
+ * Posts are indexed by id in a hash map for constant-time lookups and kept in an id-ordered
+ * skip list, so iteration follows insertion order (ids come from a monotonic sequence).
+ * Secondary indexes back filtered listings: a skip list ordered by (createDate, id) for date ranges
+ * and a hash index from author to the author's posts, ordered both by id and by (createDate, id),
+ * so every filtered page is a range of one skip list.
+ * Reads never lock. Writes of a post hold the lock of its stripe, so writes of one post are serialized
+ * while writes of unrelated posts only meet in the concurrent maps; {@link #write(Supplier)} excludes all of them.
+ * Posts are held as {@link CompactPost}, so every read returns fresh copies that callers may change freely
+ * and a stored post only changes through {@link #save(Post)}.
+ * When a {@link PostBodyStore} is configured the texts are kept there instead of on the heap.
+ */
 @Singleton
 public class MemoryStorage {
 
-    private final List<Post> posts;
+    private final Map<Long, CompactPost> index = new ConcurrentHashMap<>();
 
-    private long FIRST_NUM_FOR_ID = 1L;
+    private final ConcurrentNavigableMap<Long, CompactPost> ordered = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentNavigableMap<CreateDateKey, CompactPost> byCreateDate = new ConcurrentSkipListMap<>();
+
+    private final Map<String, AuthorPosts> byAuthor = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private static final int POST_LOCK_STRIPES = 64;
+
+    private final ReadWriteLock storeLock = new ReentrantReadWriteLock();
+
+    private final Lock[] postLocks = new Lock[POST_LOCK_STRIPES];
+
+    private final PostBodyStore bodies;
 
     public MemoryStorage() {
+        this(null);
+    }
+
+    @Inject
+    public MemoryStorage(@Nullable PostBodyStore bodies) {
+        this.bodies = bodies;
+        for (int i = 0; i < postLocks.length; i++) {
+            postLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Saves the sample posts, called on startup by {@link PostStorageSeeder} rather than on construction.
+     *
+     * @return the saved posts
+     */
+    public List<Post> seed() {
         Post post1 = Post.builder()
                 .title("First post")
                 .text("Text of first post")
@@ -35,23 +98,415 @@ public class MemoryStorage {
                 .author("Kobayashi")
                 .createDate(LocalDateTime.of(2020, 12, 12, 12, 12))
                 .build();
-        post1.setId(incrementAndGetId());
-        post1.setGuid(UUID.randomUUID().toString());
 
-        post2.setId(incrementAndGetId());
-        post2.setGuid(UUID.randomUUID().toString());
-
-        post3.setId(incrementAndGetId());
-        post3.setGuid(UUID.randomUUID().toString());
-
-        this.posts = Stream.of(post1, post2, post3).collect(Collectors.toList());
+        List<Post> seeded = List.of(post1, post2, post3);
+        seeded.forEach(post -> {
+            post.setId(incrementAndGetId());
+            post.setGuid(UUID.randomUUID().toString());
+            post.setVersion(1L);
+            post.setUpdateDate(post.getCreateDate());
+            save(post);
+        });
+        return seeded;
     }
 
     public long incrementAndGetId() {
-        return FIRST_NUM_FOR_ID++;
+        return sequence.incrementAndGet();
     }
 
+    /**
+     * @return snapshot of all posts in insertion order
+     */
     public List<Post> getPosts() {
+        List<Post> posts = new ArrayList<>(index.size());
+        for (CompactPost post : ordered.values()) {
+            addIfPresent(posts, post);
+        }
         return posts;
     }
+
+    /**
+     * @return weakly consistent, read-only view of all posts in insertion order
+     */
+    public Collection<Post> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Post> iterator() {
+                Iterator<CompactPost> posts = ordered.values().iterator();
+                return new Iterator<>() {
+
+                    private Post next = advance();
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public Post next() {
+                        if (next == null) {
+                            throw new NoSuchElementException();
+                        }
+                        Post current = next;
+                        next = advance();
+                        return current;
+                    }
+
+                    private Post advance() {
+                        while (posts.hasNext()) {
+                            Post post = materialize(posts.next());
+                            if (post != null) {
+                                return post;
+                            }
+                        }
+                        return null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ordered.size();
+            }
+        };
+    }
+
+    /**
+     * Offset paging walks the id-ordered view without copying it, so the cost is O(offset + limit).
+     */
+    public List<Post> page(long offset, int limit) {
+        List<Post> page = new ArrayList<>(limit);
+        Iterator<CompactPost> iterator = ordered.values().iterator();
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (page.size() < limit && iterator.hasNext()) {
+            addIfPresent(page, iterator.next());
+        }
+        return page;
+    }
+
+    public List<Post> pageAfterId(long afterId, int limit) {
+        return firstOf(ordered.tailMap(afterId, false).values(), limit);
+    }
+
+    /**
+     * @param createDate creation date of the last post of the previous page, or null to start from the oldest post
+     * @param afterId    id of the last post of the previous page, breaks ties between equal dates
+     */
+    public List<Post> pageAfterCreateDate(LocalDateTime createDate, long afterId, int limit) {
+        Collection<CompactPost> tail = createDate == null
+                ? byCreateDate.values()
+                : byCreateDate.tailMap(new CreateDateKey(createDate, afterId), false).values();
+        return firstOf(tail, limit);
+    }
+
+    /**
+     * Posts of the author in id order.
+     */
+    public List<Post> pageByAuthor(String author, long afterId, int limit) {
+        var posts = byAuthor.get(author);
+        if (posts == null) {
+            return new ArrayList<>(0);
+        }
+        return firstOf(posts.posts.tailMap(afterId, false).values(), limit);
+    }
+
+    /**
+     * Posts of the author created in [from, to) in (createDate, id) order, continuing after the given cursor position.
+     * Any bound may be null.
+     */
+    public List<Post> pageByAuthorCreatedBetween(String author, LocalDateTime from, LocalDateTime to, LocalDateTime afterCreateDate, long afterId, int limit) {
+        var posts = byAuthor.get(author);
+        if (posts == null) {
+            return new ArrayList<>(0);
+        }
+        return firstOf(createDateRange(posts.byCreateDate, from, to, afterCreateDate, afterId), limit);
+    }
+
+    /**
+     * Posts created in [from, to) in (createDate, id) order, continuing after the given cursor position.
+     * Any bound may be null.
+     */
+    public List<Post> pageCreatedBetween(LocalDateTime from, LocalDateTime to, LocalDateTime afterCreateDate, long afterId, int limit) {
+        return firstOf(createDateRange(byCreateDate, from, to, afterCreateDate, afterId), limit);
+    }
+
+    public Optional<Post> findById(long id) {
+        var post = index.get(id);
+        return post == null ? Optional.empty() : Optional.ofNullable(materialize(post));
+    }
+
+    /**
+     * Same as {@link #findById(long)} without decoding the text, which is handed out as a view of the stored bytes.
+     */
+    public Optional<PostContent> findContentById(long id) {
+        var post = index.get(id);
+        while (post != null) {
+            var content = post.toContent(bodies);
+            if (content != null) {
+                return Optional.of(content);
+            }
+            post = index.get(id);
+        }
+        return Optional.empty();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return the first id of a block of {@code count} consecutive ids
+     */
+    public long reserveIds(int count) {
+        return sequence.getAndAdd(count) + 1;
+    }
+
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Moves the id sequence forward to at least the given value, used when posts are restored.
+     */
+    public void advanceSequence(long value) {
+        sequence.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Runs the change while no other change runs, so changes and their side effects are seen in the same order.
+     */
+    public <T> T write(Supplier<T> change) {
+        storeLock.writeLock().lock();
+        try {
+            return change.get();
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a change of one post under the lock of its stripe, so changes of the post and their side effects
+     * are seen in the same order while changes of other posts run concurrently.
+     * The change must not call {@link #write(Supplier)}.
+     */
+    public <T> T writePost(long id, Supplier<T> change) {
+        Lock postLock = lockPost(id);
+        try {
+            return change.get();
+        } finally {
+            unlockPost(postLock);
+        }
+    }
+
+    public void clear() {
+        storeLock.writeLock().lock();
+        try {
+            index.clear();
+            if (bodies != null) {
+                bodies.clear();
+            }
+            ordered.clear();
+            byCreateDate.clear();
+            byAuthor.clear();
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a copy of the post, later changes to the given instance are not seen by the storage.
+     */
+    public void save(Post post) {
+        Lock postLock = lockPost(post.getId());
+        try {
+            var authorPosts = post.getAuthor() == null ? null : byAuthor.get(post.getAuthor());
+            CompactPost compact = CompactPost.of(post, authorPosts == null ? post.getAuthor() : authorPosts.author, bodies);
+            CompactPost previous = index.put(compact.id, compact);
+            if (previous != null) {
+                byCreateDate.remove(CreateDateKey.of(previous));
+                removeFromAuthor(previous);
+            }
+            ordered.put(compact.id, compact);
+            byCreateDate.put(CreateDateKey.of(compact), compact);
+            if (compact.author != null) {
+                byAuthor.compute(compact.author, (author, posts) -> {
+                    var target = posts == null ? new AuthorPosts(author) : posts;
+                    target.posts.put(compact.id, compact);
+                    target.byCreateDate.put(CreateDateKey.of(compact), compact);
+                    return target;
+                });
+            }
+            if (previous != null) {
+                previous.release(bodies);
+            }
+        } finally {
+            unlockPost(postLock);
+        }
+    }
+
+    public boolean remove(long id) {
+        Lock postLock = lockPost(id);
+        try {
+            CompactPost removed = index.remove(id);
+            if (removed == null) {
+                return false;
+            }
+            ordered.remove(id);
+            byCreateDate.remove(CreateDateKey.of(removed));
+            removeFromAuthor(removed);
+            removed.release(bodies);
+            return true;
+        } finally {
+            unlockPost(postLock);
+        }
+    }
+
+    private Lock lockPost(long id) {
+        storeLock.readLock().lock();
+        Lock postLock = postLocks[Long.hashCode(id) & (POST_LOCK_STRIPES - 1)];
+        postLock.lock();
+        return postLock;
+    }
+
+    private void unlockPost(Lock postLock) {
+        postLock.unlock();
+        storeLock.readLock().unlock();
+    }
+
+    private void removeFromAuthor(CompactPost post) {
+        if (post.author == null) {
+            return;
+        }
+        byAuthor.computeIfPresent(post.author, (author, posts) -> {
+            if (posts.posts.remove(post.id, post)) {
+                posts.byCreateDate.remove(CreateDateKey.of(post), post);
+            }
+            return posts.posts.isEmpty() ? null : posts;
+        });
+    }
+
+    /**
+     * The [from, to) window of a (createDate, id) index after the cursor position, posts without a date lie outside any window.
+     */
+    private static Collection<CompactPost> createDateRange(NavigableMap<CreateDateKey, CompactPost> posts,
+                                                           LocalDateTime from, LocalDateTime to,
+                                                           LocalDateTime afterCreateDate, long afterId) {
+        CreateDateKey lower = from != null ? new CreateDateKey(from, Long.MIN_VALUE)
+                : to != null ? CreateDateKey.FIRST_DATED : null;
+        boolean lowerInclusive = true;
+        if (afterCreateDate != null) {
+            var cursor = new CreateDateKey(afterCreateDate, afterId);
+            if (lower == null || cursor.compareTo(lower) >= 0) {
+                lower = cursor;
+                lowerInclusive = false;
+            }
+        }
+        CreateDateKey upper = to == null ? null : new CreateDateKey(to, Long.MIN_VALUE);
+
+        if (lower != null && upper != null) {
+            if (lower.compareTo(upper) > 0) {
+                return List.of();
+            }
+            return posts.subMap(lower, lowerInclusive, upper, false).values();
+        }
+        return lower == null ? posts.values() : posts.tailMap(lower, lowerInclusive).values();
+    }
+
+    private List<Post> firstOf(Collection<CompactPost> posts, int limit) {
+        List<Post> page = new ArrayList<>(limit);
+        Iterator<CompactPost> iterator = posts.iterator();
+        while (page.size() < limit && iterator.hasNext()) {
+            addIfPresent(page, iterator.next());
+        }
+        return page;
+    }
+
+    private void addIfPresent(List<Post> posts, CompactPost post) {
+        Post materialized = materialize(post);
+        if (materialized != null) {
+            posts.add(materialized);
+        }
+    }
+
+    /**
+     * @return the post, or its current revision when its text was released by a concurrent write,
+     * or null when it was deleted in the meantime
+     */
+    private Post materialize(CompactPost post) {
+        Post materialized = post.toPost(bodies);
+        while (materialized == null) {
+            post = index.get(post.id);
+            if (post == null) {
+                return null;
+            }
+            materialized = post.toPost(bodies);
+        }
+        return materialized;
+    }
+
+    /**
+     * Posts of one author, the name instance is shared by all of them.
+     */
+    private static final class AuthorPosts {
+
+        private final String author;
+
+        private final ConcurrentNavigableMap<Long, CompactPost> posts = new ConcurrentSkipListMap<>();
+
+        private final ConcurrentNavigableMap<CreateDateKey, CompactPost> byCreateDate = new ConcurrentSkipListMap<>();
+
+        private AuthorPosts(String author) {
+            this.author = author;
+        }
+    }
+
+    private static final class CreateDateKey implements Comparable<CreateDateKey> {
+
+        private static final CreateDateKey FIRST_DATED = new CreateDateKey(CompactPost.NO_DATE + 1, 0, Long.MIN_VALUE);
+
+        private final long epochSecond;
+
+        private final int nano;
+
+        private final long id;
+
+        private CreateDateKey(long epochSecond, int nano, long id) {
+            this.epochSecond = epochSecond;
+            this.nano = nano;
+            this.id = id;
+        }
+
+        private CreateDateKey(LocalDateTime createDate, long id) {
+            this(CompactPost.epochSecond(createDate), CompactPost.nano(createDate), id);
+        }
+
+        private static CreateDateKey of(CompactPost post) {
+            return new CreateDateKey(post.createSecond, post.createNano, post.id);
+        }
+
+        @Override
+        public int compareTo(CreateDateKey other) {
+            int bySecond = Long.compare(epochSecond, other.epochSecond);
+            if (bySecond != 0) {
+                return bySecond;
+            }
+            int byNano = Integer.compare(nano, other.nano);
+            return byNano != 0 ? byNano : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CreateDateKey)) return false;
+            CreateDateKey that = (CreateDateKey) o;
+            return epochSecond == that.epochSecond && nano == that.nano && id == that.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(epochSecond, nano, id);
+        }
+    }
 }
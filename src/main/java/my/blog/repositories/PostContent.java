@@ -0,0 +1,38 @@
+package my.blog.repositories;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import my.blog.models.Post;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Post whose text is not decoded: the post carries no text and the text is a read-only view of its UTF-8 bytes,
+ * which may be outside of the Java heap.
+ */
+@Getter
+@AllArgsConstructor
+public class PostContent {
+
+    private final Post post;
+
+    /**
+     * Null when the post has no text.
+     */
+    private final ByteBuffer text;
+
+    public static PostContent of(Post post) {
+        var text = post.getText();
+        var metadata = Post.builder()
+                .title(post.getTitle())
+                .author(post.getAuthor())
+                .createDate(post.getCreateDate())
+                .updateDate(post.getUpdateDate())
+                .build();
+        metadata.setId(post.getId());
+        metadata.setGuid(post.getGuid());
+        metadata.setVersion(post.getVersion());
+        return new PostContent(metadata, text == null ? null : ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer());
+    }
+}
@@ -0,0 +1,422 @@
+package my.blog.repositories;
+
+import io.micronaut.context.annotation.Requires;
+import my.blog.models.Post;
+
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * PostgreSQL backed repository, enabled with {@code blog.storage.type: jdbc}.
+ * Statements are plain parameterized SQL, so the driver can keep them server-side prepared per pooled connection.
+ */
+@Singleton
+@Requires(property = "blog.storage.type", value = "jdbc")
+public class PostJdbcRepo implements PostRepository {
+
+    private static final String COLUMNS = "id, guid, title, text, author, createDate, updateDate, version";
+
+    private static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM wb_posts ORDER BY id";
+
+    private static final String SELECT_PAGE = "SELECT " + COLUMNS + " FROM wb_posts ORDER BY id LIMIT ? OFFSET ?";
+
+    private static final String SELECT_AFTER_ID = "SELECT " + COLUMNS + " FROM wb_posts WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_FIRST_BY_CREATE_DATE = "SELECT " + COLUMNS + " FROM wb_posts ORDER BY createDate, id LIMIT ?";
+
+    private static final String SELECT_AFTER_CREATE_DATE = "SELECT " + COLUMNS + " FROM wb_posts " +
+            "WHERE createDate > ? OR (createDate = ? AND id > ?) ORDER BY createDate, id LIMIT ?";
+
+    private static final String SEARCH = "SELECT " + COLUMNS + " FROM wb_posts " +
+            "WHERE lower(title) LIKE ? OR lower(text) LIKE ? OR lower(author) LIKE ? ORDER BY id DESC LIMIT ?";
+
+    private static final String COUNT = "SELECT count(*) FROM wb_posts";
+
+    private static final String SELECT_BY_ID = "SELECT " + COLUMNS + " FROM wb_posts WHERE id = ?";
+
+    private static final String UPDATE = "UPDATE wb_posts SET title = ?, text = ?, updateDate = ?, version = version + 1 " +
+            "WHERE id = ? AND (? = 0 OR version = ?)";
+
+    private static final String DELETE = "DELETE FROM wb_posts WHERE id = ?";
+
+    private static final String INSERT = "INSERT INTO wb_posts (guid, title, text, author, createDate, updateDate, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+
+    public PostJdbcRepo(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<Post> findAllPosts() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_ALL)) {
+            return readPosts(statement);
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure read posts", e);
+        }
+    }
+
+    @Override
+    public List<Post> findPosts(long offset, int limit) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_PAGE)) {
+            statement.setInt(1, limit);
+            statement.setLong(2, offset);
+            return readPosts(statement);
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure read posts page", e);
+        }
+    }
+
+    @Override
+    public List<Post> findPostsAfterId(long afterId, int limit) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_AFTER_ID)) {
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            return readPosts(statement);
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure read posts page", e);
+        }
+    }
+
+    @Override
+    public List<Post> findPostsAfterCreateDate(LocalDateTime createDate, long afterId, int limit) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(createDate == null ? SELECT_FIRST_BY_CREATE_DATE : SELECT_AFTER_CREATE_DATE)) {
+            if (createDate == null) {
+                statement.setInt(1, limit);
+            } else {
+                statement.setObject(1, toDb(createDate));
+                statement.setObject(2, toDb(createDate));
+                statement.setLong(3, afterId);
+                statement.setInt(4, limit);
+            }
+            return readPosts(statement);
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure read posts page", e);
+        }
+    }
+
+    @Override
+    public List<Post> findPostsByAuthor(String author, long afterId, int limit) {
+        return query("SELECT " + COLUMNS + " FROM wb_posts WHERE author = ? AND id > ? ORDER BY id LIMIT ?", List.of(author, afterId, limit));
+    }
+
+    @Override
+    public List<Post> findPostsByAuthorCreatedBetween(String author, LocalDateTime from, LocalDateTime to, LocalDateTime afterCreateDate, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM wb_posts WHERE author = ?");
+        List<Object> parameters = new ArrayList<>(List.of(author));
+        appendDateRange(sql, parameters, from, to);
+        appendCreateDateCursor(sql, parameters, afterCreateDate, afterId);
+        sql.append(" ORDER BY createDate, id LIMIT ?");
+        parameters.add(limit);
+        return query(sql.toString(), parameters);
+    }
+
+    @Override
+    public List<Post> findPostsCreatedBetween(LocalDateTime from, LocalDateTime to, LocalDateTime afterCreateDate, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM wb_posts WHERE 1 = 1");
+        List<Object> parameters = new ArrayList<>();
+        appendDateRange(sql, parameters, from, to);
+        appendCreateDateCursor(sql, parameters, afterCreateDate, afterId);
+        sql.append(" ORDER BY createDate, id LIMIT ?");
+        parameters.add(limit);
+        return query(sql.toString(), parameters);
+    }
+
+    @Override
+    public Optional<Post> findById(long id) {
+        try (Connection connection = dataSource.getConnection()) {
+            return findById(connection, id);
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure read post with id: " + id, e);
+        }
+    }
+
+    @Override
+    public long countPosts() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(COUNT);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure count posts", e);
+        }
+    }
+
+    /**
+     * Substring match of the whole query, there is no relevance ranking without a full-text index in the database.
+     */
+    @Override
+    public List<Post> searchPosts(String query, int limit) {
+        var pattern = "%" + query.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SEARCH)) {
+            statement.setString(1, pattern);
+            statement.setString(2, pattern);
+            statement.setString(3, pattern);
+            statement.setInt(4, limit);
+            return readPosts(statement);
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure search posts", e);
+        }
+    }
+
+    @Override
+    public Optional<Post> updatePost(Post post) {
+        return inTransaction("Failure update post with id: " + post.getId(), connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+                statement.setString(1, post.getTitle());
+                statement.setString(2, post.getText());
+                statement.setObject(3, toDb(LocalDateTime.now()));
+                statement.setLong(4, post.getId());
+                statement.setLong(5, post.getVersion());
+                statement.setLong(6, post.getVersion());
+                if (statement.executeUpdate() > 0) {
+                    return findById(connection, post.getId());
+                }
+            }
+            var current = post.getVersion() == 0 ? Optional.<Post>empty() : findById(connection, post.getId());
+            if (current.isPresent()) {
+                throw new VersionConflictException(post.getId(), post.getVersion(), current.get().getVersion());
+            }
+            return Optional.<Post>empty();
+        });
+    }
+
+    @Override
+    public boolean deletePostById(long id) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE)) {
+            statement.setLong(1, id);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure delete post with id: " + id, e);
+        }
+    }
+
+    @Override
+    public Post createPost(Post post) {
+        if (post.getGuid() == null) {
+            post.setGuid(UUID.randomUUID().toString());
+        }
+        post.setCreateDate(LocalDateTime.now());
+        post.setUpdateDate(post.getCreateDate());
+        post.setVersion(1L);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(statement, post);
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                post.setId(keys.getLong(1));
+            }
+            return post;
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure create post", e);
+        }
+    }
+
+    /**
+     * Inserts the posts with one batched statement in a single transaction.
+     */
+    @Override
+    public List<Post> createPosts(Collection<Post> posts) {
+        var createDate = LocalDateTime.now();
+        for (Post post : posts) {
+            if (post.getGuid() == null) {
+                post.setGuid(UUID.randomUUID().toString());
+            }
+            post.setCreateDate(createDate);
+            post.setUpdateDate(createDate);
+            post.setVersion(1L);
+        }
+        return inTransaction("Failure create posts", connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Post post : posts) {
+                    bindInsert(statement, post);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Post post : posts) {
+                        keys.next();
+                        post.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return new ArrayList<>(posts);
+        });
+    }
+
+    @Override
+    public List<Optional<Post>> updatePosts(Collection<Post> posts) {
+        return inTransaction("Failure update posts", connection -> {
+            int[] counts;
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+                var updateDate = toDb(LocalDateTime.now());
+                for (Post post : posts) {
+                    statement.setString(1, post.getTitle());
+                    statement.setString(2, post.getText());
+                    statement.setObject(3, updateDate);
+                    statement.setLong(4, post.getId());
+                    statement.setLong(5, post.getVersion());
+                    statement.setLong(6, post.getVersion());
+                    statement.addBatch();
+                }
+                counts = statement.executeBatch();
+            }
+            List<Optional<Post>> results = new ArrayList<>(posts.size());
+            int i = 0;
+            for (Post post : posts) {
+                results.add(counts[i++] != 0 ? findById(connection, post.getId()) : Optional.empty());
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public List<Boolean> deletePostsByIds(Collection<Long> ids) {
+        return inTransaction("Failure delete posts", connection -> {
+            int[] counts;
+            try (PreparedStatement statement = connection.prepareStatement(DELETE)) {
+                for (long id : ids) {
+                    statement.setLong(1, id);
+                    statement.addBatch();
+                }
+                counts = statement.executeBatch();
+            }
+            List<Boolean> results = new ArrayList<>(counts.length);
+            for (int count : counts) {
+                results.add(count != 0);
+            }
+            return results;
+        });
+    }
+
+    private <T> T inTransaction(String errorMsg, SqlWork<T> work) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                T result = work.execute(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException(errorMsg, e);
+        }
+    }
+
+    private List<Post> query(String sql, List<Object> parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return readPosts(statement);
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure read posts", e);
+        }
+    }
+
+    private static void appendDateRange(StringBuilder sql, List<Object> parameters, LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            sql.append(" AND createDate >= ?");
+            parameters.add(toDb(from));
+        }
+        if (to != null) {
+            sql.append(" AND createDate < ?");
+            parameters.add(toDb(to));
+        }
+    }
+
+    private static void appendCreateDateCursor(StringBuilder sql, List<Object> parameters, LocalDateTime afterCreateDate, long afterId) {
+        if (afterCreateDate != null) {
+            sql.append(" AND (createDate > ? OR (createDate = ? AND id > ?))");
+            parameters.add(toDb(afterCreateDate));
+            parameters.add(toDb(afterCreateDate));
+            parameters.add(afterId);
+        }
+    }
+
+    private Optional<Post> findById(Connection connection, long id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_BY_ID)) {
+            statement.setLong(1, id);
+            List<Post> posts = readPosts(statement);
+            return posts.isEmpty() ? Optional.empty() : Optional.of(posts.get(0));
+        }
+    }
+
+    private static void bindInsert(PreparedStatement statement, Post post) throws SQLException {
+        statement.setString(1, post.getGuid());
+        statement.setString(2, post.getTitle());
+        statement.setString(3, post.getText());
+        statement.setString(4, post.getAuthor());
+        statement.setObject(5, toDb(post.getCreateDate()));
+        statement.setObject(6, toDb(post.getUpdateDate()));
+        statement.setLong(7, post.getVersion());
+    }
+
+    private static List<Post> readPosts(PreparedStatement statement) throws SQLException {
+        List<Post> posts = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                posts.add(readPost(resultSet));
+            }
+        }
+        return posts;
+    }
+
+    private static Post readPost(ResultSet resultSet) throws SQLException {
+        Post post = Post.builder()
+                .title(resultSet.getString("title"))
+                .text(resultSet.getString("text"))
+                .author(resultSet.getString("author"))
+                .createDate(fromDb(resultSet.getObject("createDate", OffsetDateTime.class)))
+                .updateDate(fromDb(resultSet.getObject("updateDate", OffsetDateTime.class)))
+                .build();
+        post.setId(resultSet.getLong("id"));
+        post.setGuid(resultSet.getString("guid"));
+        post.setVersion(resultSet.getLong("version"));
+        return post;
+    }
+
+    private static OffsetDateTime toDb(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+
+    private static LocalDateTime fromDb(OffsetDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    @FunctionalInterface
+    private interface SqlWork<T> {
+
+        T execute(Connection connection) throws SQLException;
+    }
+}
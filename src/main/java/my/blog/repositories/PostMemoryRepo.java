@@ -1,21 +1,46 @@
 package my.blog.repositories;
 
+import io.micronaut.context.annotation.Requires;
 import my.blog.models.Post;
+import my.blog.repositories.journal.PostJournal;
+import my.blog.search.PostSearchIndex;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Singleton
+@Requires(property = "blog.storage.type", value = "memory", defaultValue = "memory")
 public class PostMemoryRepo implements PostRepository {
 
+    private static final CompletableFuture<Boolean> APPLIED = CompletableFuture.completedFuture(Boolean.TRUE);
+
+    private static final CompletableFuture<Boolean> NOT_APPLIED = CompletableFuture.completedFuture(Boolean.FALSE);
+
     @Inject
     private final MemoryStorage memoryStorage;
 
-    public PostMemoryRepo(MemoryStorage memoryStorage) {
+    private final PostJournal journal;
+
+    private final PostSearchIndex searchIndex;
+
+    private final Map<Long, PendingChange> pending = new ConcurrentHashMap<>();
+
+    public PostMemoryRepo(MemoryStorage memoryStorage, PostJournal journal, PostSearchIndex searchIndex) {
         this.memoryStorage = memoryStorage;
+        this.journal = journal;
+        this.searchIndex = searchIndex;
+        memoryStorage.values().forEach(searchIndex::index);
     }
 
     @Override
@@ -23,38 +48,297 @@ public class PostMemoryRepo implements PostRepository {
         return memoryStorage.getPosts();
     }
 
+    @Override
+    public List<Post> findPosts(long offset, int limit) {
+        return memoryStorage.page(offset, limit);
+    }
+
+    @Override
+    public List<Post> findPostsAfterId(long afterId, int limit) {
+        return memoryStorage.pageAfterId(afterId, limit);
+    }
+
+    @Override
+    public List<Post> findPostsAfterCreateDate(LocalDateTime createDate, long afterId, int limit) {
+        return memoryStorage.pageAfterCreateDate(createDate, afterId, limit);
+    }
+
+    @Override
+    public List<Post> findPostsByAuthor(String author, long afterId, int limit) {
+        return memoryStorage.pageByAuthor(author, afterId, limit);
+    }
+
+    @Override
+    public List<Post> findPostsByAuthorCreatedBetween(String author, LocalDateTime from, LocalDateTime to, LocalDateTime afterCreateDate, long afterId, int limit) {
+        return memoryStorage.pageByAuthorCreatedBetween(author, from, to, afterCreateDate, afterId, limit);
+    }
+
+    @Override
+    public List<Post> findPostsCreatedBetween(LocalDateTime from, LocalDateTime to, LocalDateTime afterCreateDate, long afterId, int limit) {
+        return memoryStorage.pageCreatedBetween(from, to, afterCreateDate, afterId, limit);
+    }
+
     @Override
     public Optional<Post> findById(long id) {
-        return memoryStorage.getPosts().stream()
-                .filter(post -> post.getId() == id)
-                .findFirst();
+        return memoryStorage.findById(id);
     }
 
     @Override
-    public Optional<Post> updatePost(Post post) {
-        var postFound = findById(post.getId());
-        if (postFound.isPresent()) {
-            var oldPost = postFound.get();
-            oldPost.setTitle(post.getTitle());
-            oldPost.setText(post.getText());
+    public Optional<PostContent> findContentById(long id) {
+        return memoryStorage.findContentById(id);
+    }
+
+    @Override
+    public long countPosts() {
+        return memoryStorage.size();
+    }
+
+    @Override
+    public List<Post> searchPosts(String query, int limit) {
+        long[] ids = searchIndex.search(query, limit);
+        List<Post> found = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            memoryStorage.findById(id).ifPresent(found::add);
         }
-        return postFound;
+        return found;
+    }
+
+    @Override
+    public Optional<Post> updatePost(Post post) {
+        return updatePostAsync(post).join();
     }
 
     @Override
     public boolean deletePostById(long id) {
-        var postFound = findById(id);
-        if (postFound.isPresent()) {
-            memoryStorage.getPosts().remove(postFound.get());
-            return true;
-        } else return false;
+        return deletePostByIdAsync(id).join();
     }
 
     @Override
     public Post createPost(Post post) {
-        post.setId(memoryStorage.incrementAndGetId());
-        post.setCreateDate(LocalDateTime.now());
-        memoryStorage.getPosts().add(post);
-        return post;
+        return createPostAsync(post).join();
+    }
+
+    /**
+     * Same as {@link #updatePost(Post)}, completes once the change is journaled and applied instead of waiting for it.
+     *
+     * @throws VersionConflictException if the post names a version other than the current one
+     */
+    CompletableFuture<Optional<Post>> updatePostAsync(Post post) {
+        var result = new AtomicReference<Optional<Post>>(Optional.empty());
+        return applyAsync(post.getId(), () -> {
+            var updated = update(post, LocalDateTime.now());
+            if (updated.isEmpty()) {
+                return null;
+            }
+            result.set(updated);
+            return logSave(updated.get());
+        }).thenApply(applied -> result.get());
+    }
+
+    CompletableFuture<Boolean> deletePostByIdAsync(long id) {
+        return applyAsync(id, () -> current(id).isPresent() ? logDelete(id) : null);
+    }
+
+    CompletableFuture<Post> createPostAsync(Post post) {
+        prepareNew(post, memoryStorage.incrementAndGetId(), LocalDateTime.now());
+        return applyAsync(post.getId(), () -> logSave(post)).thenApply(created -> post);
+    }
+
+    @Override
+    public List<Post> createPosts(Collection<Post> posts) {
+        var createDate = LocalDateTime.now();
+        long id = memoryStorage.reserveIds(posts.size());
+        for (Post post : posts) {
+            prepareNew(post, id++, createDate);
+        }
+        durably(() -> {
+            List<CompletableFuture<Void>> written = new ArrayList<>(posts.size());
+            for (Post post : posts) {
+                written.add(logSave(post));
+            }
+            return allOf(written);
+        });
+        return new ArrayList<>(posts);
+    }
+
+    @Override
+    public List<Optional<Post>> updatePosts(Collection<Post> posts) {
+        List<Optional<Post>> results = new ArrayList<>(posts.size());
+        durably(() -> {
+            List<CompletableFuture<Void>> written = new ArrayList<>(posts.size());
+            var updateDate = LocalDateTime.now();
+            for (Post post : posts) {
+                Optional<Post> updated;
+                try {
+                    updated = update(post, updateDate);
+                } catch (VersionConflictException e) {
+                    updated = Optional.empty();
+                }
+                updated.ifPresent(newPost -> written.add(logSave(newPost)));
+                results.add(updated);
+            }
+            return allOf(written);
+        });
+        return results;
+    }
+
+    @Override
+    public List<Boolean> deletePostsByIds(Collection<Long> ids) {
+        List<Boolean> results = new ArrayList<>(ids.size());
+        durably(() -> {
+            List<CompletableFuture<Void>> written = new ArrayList<>(ids.size());
+            for (long id : ids) {
+                boolean deleted = current(id).isPresent();
+                if (deleted) {
+                    written.add(logDelete(id));
+                }
+                results.add(deleted);
+            }
+            return allOf(written);
+        });
+        return results;
+    }
+
+    /**
+     * Saves the sample posts of {@link MemoryStorage#seed()} when the store is empty, also after journal recovery.
+     */
+    public void seedIfEmpty() {
+        durably(() -> {
+            if (memoryStorage.size() > 0) {
+                return null;
+            }
+            List<CompletableFuture<Void>> written = new ArrayList<>();
+            for (Post post : memoryStorage.seed()) {
+                searchIndex.index(post);
+                written.add(journal.appendSave(post));
+            }
+            return allOf(written);
+        });
+    }
+
+    /**
+     * Returns a new revision of the post with the title and text of the given one, called under the lock of the post.
+     * A post with version 0 replaces any revision, otherwise only the revision it names.
+     */
+    private Optional<Post> update(Post post, LocalDateTime updateDate) {
+        var postFound = current(post.getId());
+        if (postFound.isPresent() && post.getVersion() != 0 && post.getVersion() != postFound.get().getVersion()) {
+            throw new VersionConflictException(post.getId(), post.getVersion(), postFound.get().getVersion());
+        }
+        return postFound.map(found -> {
+            Post revision = Post.builder()
+                    .title(post.getTitle())
+                    .text(post.getText())
+                    .author(found.getAuthor())
+                    .createDate(found.getCreateDate())
+                    .updateDate(updateDate)
+                    .build();
+            revision.setId(found.getId());
+            revision.setGuid(found.getGuid());
+            revision.setVersion(found.getVersion() + 1);
+            return revision;
+        });
+    }
+
+    /**
+     * Latest revision of the post including changes still waiting for the journal, called under the lock of the post.
+     */
+    private Optional<Post> current(long id) {
+        var change = pending.get(id);
+        if (change == null) {
+            return memoryStorage.findById(id);
+        }
+        return Optional.ofNullable(change.post);
+    }
+
+    /**
+     * Journals the post and saves it to the store once the journal has it, readers never see a change that could
+     * be lost. Until then later changes of the post build on the pending revision.
+     */
+    private CompletableFuture<Void> logSave(Post post) {
+        var change = new PendingChange(post);
+        pending.put(post.getId(), change);
+        return journal.appendSave(post).whenComplete((ignored, error) -> {
+            if (error == null) {
+                memoryStorage.save(post);
+                searchIndex.index(post);
+            }
+            pending.remove(post.getId(), change);
+        });
+    }
+
+    private CompletableFuture<Void> logDelete(long id) {
+        var change = new PendingChange(null);
+        pending.put(id, change);
+        return journal.appendDelete(id).whenComplete((ignored, error) -> {
+            if (error == null) {
+                memoryStorage.remove(id);
+                searchIndex.remove(id);
+            }
+            pending.remove(id, change);
+        });
+    }
+
+    private static void prepareNew(Post post, long id, LocalDateTime createDate) {
+        post.setId(id);
+        if (post.getGuid() == null) {
+            post.setGuid(UUID.randomUUID().toString());
+        }
+        post.setCreateDate(createDate);
+        post.setUpdateDate(createDate);
+        post.setVersion(1L);
+    }
+
+    private static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> written) {
+        return CompletableFuture.allOf(written.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Journals the change under the storage write lock, then waits for the journal outside of it.
+     *
+     * @param change returns the pending journal write, or null when nothing was changed
+     * @return whether the change was applied
+     */
+    private boolean durably(Supplier<CompletableFuture<Void>> change) {
+        return applyAsync(change).join();
+    }
+
+    /**
+     * Journals the change while no other change runs, without waiting for the journal.
+     *
+     * @return completes with whether the change was applied once it is journaled and applied
+     */
+    private CompletableFuture<Boolean> applyAsync(Supplier<CompletableFuture<Void>> change) {
+        return applied(memoryStorage.write(change));
+    }
+
+    /**
+     * Journals a change of one post under the lock of the post, without waiting for the journal.
+     */
+    private CompletableFuture<Boolean> applyAsync(long id, Supplier<CompletableFuture<Void>> change) {
+        return applied(memoryStorage.writePost(id, change));
+    }
+
+    private static CompletableFuture<Boolean> applied(CompletableFuture<Void> written) {
+        if (written == null) {
+            return NOT_APPLIED;
+        }
+        if (written.isDone() && !written.isCompletedExceptionally()) {
+            return APPLIED;
+        }
+        return written.thenApply(ignored -> Boolean.TRUE);
+    }
+
+    /**
+     * Revision of a post handed to the journal but not yet applied to the store, null post for a delete.
+     * Compared by identity, so only the change itself removes its entry.
+     */
+    private static final class PendingChange {
+
+        private final Post post;
+
+        private PendingChange(Post post) {
+            this.post = post;
+        }
     }
 }
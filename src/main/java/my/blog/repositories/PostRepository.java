@@ -2,6 +2,8 @@ package my.blog.repositories;
 
 import my.blog.models.Post;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,11 +11,64 @@ public interface PostRepository {
 
     List<Post> findAllPosts();
 
+    List<Post> findPosts(long offset, int limit);
+
+    List<Post> findPostsAfterId(long afterId, int limit);
+
+    List<Post> findPostsAfterCreateDate(LocalDateTime createDate, long afterId, int limit);
+
+    /**
+     * Posts of the author in id order.
+     */
+    List<Post> findPostsByAuthor(String author, long afterId, int limit);
+
+    /**
+     * Posts of the author created in [from, to) in (createDate, id) order after the given position; null bounds are open.
+     */
+    List<Post> findPostsByAuthorCreatedBetween(String author, LocalDateTime from, LocalDateTime to, LocalDateTime afterCreateDate, long afterId, int limit);
+
+    /**
+     * Posts created in [from, to) in (createDate, id) order after the given position; null bounds are open.
+     */
+    List<Post> findPostsCreatedBetween(LocalDateTime from, LocalDateTime to, LocalDateTime afterCreateDate, long afterId, int limit);
+
     Optional<Post> findById(long id);
 
+    /**
+     * Same as {@link #findById(long)} with the text as UTF-8 bytes, stores that keep the bytes override it to hand them out without decoding.
+     */
+    default Optional<PostContent> findContentById(long id) {
+        return findById(id).map(PostContent::of);
+    }
+
+    long countPosts();
+
+    /**
+     * @return posts matching any word of the query in title, text or author, best match first
+     */
+    List<Post> searchPosts(String query, int limit);
+
+    /**
+     * Replaces title and text of the stored post, a post with version other than 0 is only applied to that revision.
+     *
+     * @throws VersionConflictException if the post was changed since the given version
+     */
     Optional<Post> updatePost(Post post);
 
     boolean deletePostById(long id);
 
     Post createPost(Post post);
+
+    List<Post> createPosts(Collection<Post> posts);
+
+    /**
+     * @return per given post, in the same order, the updated post or empty when it does not exist or was changed
+     * since the given version
+     */
+    List<Optional<Post>> updatePosts(Collection<Post> posts);
+
+    /**
+     * @return per given id, in the same order, whether the post was deleted
+     */
+    List<Boolean> deletePostsByIds(Collection<Long> ids);
 }
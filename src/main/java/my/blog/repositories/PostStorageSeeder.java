@@ -0,0 +1,28 @@
+package my.blog.repositories;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.StartupEvent;
+
+import javax.inject.Singleton;
+
+/**
+ * Fills an empty in-memory store with the sample posts once the context is started,
+ * disabled with {@code blog.storage.seed: false}.
+ */
+@Singleton
+@Requires(property = "blog.storage.type", value = "memory", defaultValue = "memory")
+@Requires(property = "blog.storage.seed", notEquals = "false")
+public class PostStorageSeeder implements ApplicationEventListener<StartupEvent> {
+
+    private final PostMemoryRepo repository;
+
+    public PostStorageSeeder(PostMemoryRepo repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void onApplicationEvent(StartupEvent event) {
+        repository.seedIfEmpty();
+    }
+}
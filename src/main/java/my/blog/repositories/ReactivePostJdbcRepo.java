@@ -0,0 +1,74 @@
+package my.blog.repositories;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.scheduling.TaskExecutors;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import my.blog.models.Post;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * JDBC blocks, so every call is subscribed on the I/O executor and never runs on the event loop.
+ */
+@Singleton
+@Requires(property = "blog.storage.type", value = "jdbc")
+public class ReactivePostJdbcRepo implements ReactivePostRepository {
+
+    private final PostRepository repository;
+
+    private final Scheduler scheduler;
+
+    public ReactivePostJdbcRepo(PostRepository repository, @Named(TaskExecutors.IO) ExecutorService ioExecutor) {
+        this.repository = repository;
+        this.scheduler = Schedulers.from(ioExecutor);
+    }
+
+    @Override
+    public Flowable<Post> findPostsAfterId(long afterId, int limit) {
+        return Flowable.defer(() -> Flowable.fromIterable(repository.findPostsAfterId(afterId, limit)))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flowable<Post> findPostsAfterCreateDate(LocalDateTime createDate, long afterId, int limit) {
+        return Flowable.defer(() -> Flowable.fromIterable(repository.findPostsAfterCreateDate(createDate, afterId, limit)))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Maybe<Post> findById(long id) {
+        return Maybe.defer(() -> repository.findById(id).map(Maybe::just).orElse(Maybe.empty()))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flowable<Post> searchPosts(String query, int limit) {
+        return Flowable.defer(() -> Flowable.fromIterable(repository.searchPosts(query, limit)))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Maybe<Post> updatePost(Post post) {
+        return Maybe.defer(() -> repository.updatePost(post).map(Maybe::just).orElse(Maybe.empty()))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Single<Boolean> deletePostById(long id) {
+        return Single.fromCallable(() -> repository.deletePostById(id))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Single<Post> createPost(Post post) {
+        return Single.fromCallable(() -> repository.createPost(post))
+                .subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,81 @@
+package my.blog.repositories;
+
+import io.micronaut.context.annotation.Requires;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import my.blog.models.Post;
+
+import javax.inject.Singleton;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Reads complete on the subscribing thread, writes complete when the journal has the change,
+ * so no thread waits for the disk. Results of completed work are emitted without intermediate futures.
+ */
+@Singleton
+@Requires(property = "blog.storage.type", value = "memory", defaultValue = "memory")
+public class ReactivePostMemoryRepo implements ReactivePostRepository {
+
+    private final PostMemoryRepo repository;
+
+    public ReactivePostMemoryRepo(PostMemoryRepo repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Flowable<Post> findPostsAfterId(long afterId, int limit) {
+        return Flowable.defer(() -> fromList(repository.findPostsAfterId(afterId, limit)));
+    }
+
+    @Override
+    public Flowable<Post> findPostsAfterCreateDate(LocalDateTime createDate, long afterId, int limit) {
+        return Flowable.defer(() -> fromList(repository.findPostsAfterCreateDate(createDate, afterId, limit)));
+    }
+
+    @Override
+    public Maybe<Post> findById(long id) {
+        return Maybe.defer(() -> repository.findById(id).map(Maybe::just).orElse(Maybe.empty()));
+    }
+
+    @Override
+    public Flowable<Post> searchPosts(String query, int limit) {
+        return Flowable.defer(() -> fromList(repository.searchPosts(query, limit)));
+    }
+
+    @Override
+    public Maybe<Post> updatePost(Post post) {
+        return Single.defer(() -> fromFuture(repository.updatePostAsync(post)))
+                .flatMapMaybe(updated -> updated.isPresent() ? Maybe.just(updated.get()) : Maybe.<Post>empty());
+    }
+
+    @Override
+    public Single<Boolean> deletePostById(long id) {
+        return Single.defer(() -> fromFuture(repository.deletePostByIdAsync(id)));
+    }
+
+    @Override
+    public Single<Post> createPost(Post post) {
+        return Single.defer(() -> fromFuture(repository.createPostAsync(post)));
+    }
+
+    private static Flowable<Post> fromList(List<Post> posts) {
+        return posts.isEmpty() ? Flowable.empty() : Flowable.fromIterable(posts);
+    }
+
+    private static <T> Single<T> fromFuture(CompletableFuture<T> future) {
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            return Single.just(future.join());
+        }
+        return Single.create(emitter -> future.whenComplete((value, error) -> {
+            if (error != null) {
+                emitter.onError(error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                emitter.onSuccess(value);
+            }
+        }));
+    }
+}
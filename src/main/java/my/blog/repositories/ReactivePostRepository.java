@@ -0,0 +1,31 @@
+package my.blog.repositories;
+
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import my.blog.models.Post;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of {@link PostRepository}, nothing happens until the result is subscribed to.
+ */
+public interface ReactivePostRepository {
+
+    Flowable<Post> findPostsAfterId(long afterId, int limit);
+
+    Flowable<Post> findPostsAfterCreateDate(LocalDateTime createDate, long afterId, int limit);
+
+    Maybe<Post> findById(long id);
+
+    Flowable<Post> searchPosts(String query, int limit);
+
+    /**
+     * @return empty if there is no post with the id
+     */
+    Maybe<Post> updatePost(Post post);
+
+    Single<Boolean> deletePostById(long id);
+
+    Single<Post> createPost(Post post);
+}
@@ -0,0 +1,8 @@
+package my.blog.repositories;
+
+public class RepositoryException extends RuntimeException {
+
+    public RepositoryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
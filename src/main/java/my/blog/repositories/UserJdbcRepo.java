@@ -0,0 +1,70 @@
+package my.blog.repositories;
+
+import io.micronaut.context.annotation.Requires;
+import my.blog.models.User;
+
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+@Singleton
+@Requires(property = "blog.storage.type", value = "jdbc")
+public class UserJdbcRepo implements UserRepository {
+
+    private static final String SELECT_BY_USERNAME = "SELECT username, passwordHash, roles FROM wb_users WHERE username = ?";
+
+    private static final String INSERT_IF_ABSENT = "INSERT INTO wb_users (username, passwordHash, roles) " +
+            "SELECT ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM wb_users WHERE username = ?)";
+
+    private final DataSource dataSource;
+
+    public UserJdbcRepo(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_USERNAME)) {
+            statement.setString(1, username);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(User.builder()
+                        .username(resultSet.getString("username"))
+                        .passwordHash(resultSet.getString("passwordHash"))
+                        .roles(parseRoles(resultSet.getString("roles")))
+                        .build());
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure read user: " + username, e);
+        }
+    }
+
+    /**
+     * @return false when a user of that name already exists, it is left unchanged
+     */
+    public boolean saveIfAbsent(User user) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_IF_ABSENT)) {
+            statement.setString(1, user.getUsername());
+            statement.setString(2, user.getPasswordHash());
+            statement.setString(3, user.getRoles().isEmpty() ? null : String.join(",", user.getRoles()));
+            statement.setString(4, user.getUsername());
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new RepositoryException("Failure save user: " + user.getUsername(), e);
+        }
+    }
+
+    private static List<String> parseRoles(String roles) {
+        return roles == null || roles.isBlank() ? List.of() : Arrays.asList(roles.split(","));
+    }
+}
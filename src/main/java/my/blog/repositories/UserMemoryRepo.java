@@ -0,0 +1,35 @@
+package my.blog.repositories;
+
+import io.micronaut.context.annotation.Requires;
+import my.blog.models.User;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Singleton
+@Requires(property = "blog.storage.type", value = "memory", defaultValue = "memory")
+public class UserMemoryRepo implements UserRepository {
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    public UserMemoryRepo() {
+        this(new BootstrapUserConfiguration());
+    }
+
+    @Inject
+    public UserMemoryRepo(BootstrapUserConfiguration bootstrapUser) {
+        save(bootstrapUser.toUser());
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(users.get(username));
+    }
+
+    public void save(User user) {
+        users.put(user.getUsername(), user);
+    }
+}
@@ -0,0 +1,13 @@
+package my.blog.repositories;
+
+import my.blog.models.User;
+
+import java.util.Optional;
+
+/**
+ * Credential store, lookups may block and are called off the event loop.
+ */
+public interface UserRepository {
+
+    Optional<User> findByUsername(String username);
+}
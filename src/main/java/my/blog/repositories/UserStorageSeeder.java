@@ -0,0 +1,29 @@
+package my.blog.repositories;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.StartupEvent;
+
+import javax.inject.Singleton;
+
+/**
+ * Adds the bootstrap account to the user table once the context is started, unless the table already has the user.
+ */
+@Singleton
+@Requires(property = "blog.storage.type", value = "jdbc")
+public class UserStorageSeeder implements ApplicationEventListener<StartupEvent> {
+
+    private final UserJdbcRepo repository;
+
+    private final BootstrapUserConfiguration bootstrapUser;
+
+    public UserStorageSeeder(UserJdbcRepo repository, BootstrapUserConfiguration bootstrapUser) {
+        this.repository = repository;
+        this.bootstrapUser = bootstrapUser;
+    }
+
+    @Override
+    public void onApplicationEvent(StartupEvent event) {
+        repository.saveIfAbsent(bootstrapUser.toUser());
+    }
+}
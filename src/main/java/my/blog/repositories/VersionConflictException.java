@@ -0,0 +1,23 @@
+package my.blog.repositories;
+
+import lombok.Getter;
+
+/**
+ * Thrown when an update names a revision of the post that is no longer the current one.
+ */
+@Getter
+public class VersionConflictException extends RuntimeException {
+
+    private final long postId;
+
+    private final long expectedVersion;
+
+    private final long currentVersion;
+
+    public VersionConflictException(long postId, long expectedVersion, long currentVersion) {
+        super("Post with id: " + postId + " is at version " + currentVersion + ", not " + expectedVersion);
+        this.postId = postId;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,359 @@
+package my.blog.repositories.bodies;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Post texts in memory-mapped segment files, enabled with {@code blog.storage.bodies.type: mapped}.
+ * <p>
+ * Texts are appended to the current segment as a record of length, slot and bytes. A reference names a slot of the
+ * location table and the generation of the slot, so texts can move without their owners noticing: compaction copies
+ * the live texts of segments that are mostly released into the current segment, points their slots at the copies
+ * and deletes the old segment. A released slot gets a new generation before it is reused, so a stale reference
+ * reads null instead of another text. Mappings stay valid for readers still holding a view until the view is collected.
+ * Segments are scratch space rebuilt by the journal or the seed, so they are removed on startup.
+ */
+@Singleton
+@Requires(property = "blog.storage.bodies.type", value = PostBodyConfiguration.MAPPED)
+public class MappedPostBodyStore implements PostBodyStore, Closeable {
+
+    static final int RECORD_HEADER = Integer.BYTES * 2;
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedPostBodyStore.class);
+
+    private static final String SEGMENT_PREFIX = "bodies-";
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final long FREE = -1L;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final double compactionThreshold;
+
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    private volatile Slots slots = new Slots(1024);
+
+    private int[] freeSlots = new int[64];
+
+    private int freeCount;
+
+    private int usedSlots;
+
+    private Segment current;
+
+    private int nextSegment;
+
+    public MappedPostBodyStore(PostBodyConfiguration configuration) {
+        this.directory = Paths.get(configuration.getDirectory());
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, configuration.getSegmentSizeMb() * 1024L * 1024L);
+        this.compactionThreshold = configuration.getCompactionThreshold();
+        try {
+            Files.createDirectories(directory);
+            deleteSegmentFiles();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failure open post bodies in " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized long write(byte[] body) {
+        int slot = allocateSlot();
+        slots.locations.set(slot, append(ByteBuffer.wrap(body), slot));
+        return (long) slot << 32 | (slots.generations.get(slot) & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public ByteBuffer read(long reference) {
+        int slot = slotOf(reference);
+        int generation = generationOf(reference);
+        while (true) {
+            Slots table = slots;
+            if (slot >= table.length) {
+                return null;
+            }
+            long location = table.locations.get(slot);
+            if (location == FREE || table.generations.get(slot) != generation) {
+                return null;
+            }
+            Segment segment = segments.get(segmentOf(location));
+            if (segment != null) {
+                int offset = offsetOf(location);
+                int length = segment.buffer.getInt(offset);
+                return segment.buffer.slice(offset + RECORD_HEADER, length).asReadOnlyBuffer();
+            }
+            if (slots == table && table.locations.get(slot) == location) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void release(long reference) {
+        int slot = slotOf(reference);
+        Slots table = slots;
+        if (slot >= table.length || table.generations.get(slot) != generationOf(reference)) {
+            return;
+        }
+        long location = table.locations.get(slot);
+        if (location == FREE) {
+            return;
+        }
+        table.generations.incrementAndGet(slot);
+        table.locations.set(slot, FREE);
+        freeSlot(slot);
+        Segment segment = segments.get(segmentOf(location));
+        if (segment == null) {
+            return;
+        }
+        int recordSize = RECORD_HEADER + segment.buffer.getInt(offsetOf(location));
+        storedBytes.addAndGet(-recordSize);
+        segment.liveBytes -= recordSize;
+        if (segment.liveBytes == 0 && segment != current) {
+            delete(segment);
+        }
+    }
+
+    /**
+     * Moves the live texts out of every full segment whose live share fell below the compaction threshold,
+     * so the segments never hold much more than the live texts however often posts are rewritten.
+     */
+    @Scheduled(fixedDelay = "${blog.storage.bodies.compaction-interval:30s}", initialDelay = "${blog.storage.bodies.compaction-interval:30s}")
+    public void compact() {
+        for (Integer number : segments.keySet()) {
+            compact(number);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (Segment segment : segments.values()) {
+            delete(segment);
+        }
+        current = null;
+        slots = new Slots(1024);
+        freeCount = 0;
+        usedSlots = 0;
+        storedBytes.set(0);
+    }
+
+    @Override
+    public long storedBytes() {
+        return storedBytes.get();
+    }
+
+    /**
+     * @return bytes of the segment files, the live texts plus what compaction has not reclaimed yet
+     */
+    public long mappedBytes() {
+        long mapped = 0;
+        for (Segment segment : segments.values()) {
+            mapped += segment.buffer.capacity();
+        }
+        return mapped;
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        clear();
+    }
+
+    private synchronized void compact(int number) {
+        Segment segment = segments.get(number);
+        if (segment == null || segment == current || segment.liveBytes >= segment.position * compactionThreshold) {
+            return;
+        }
+        long moved = 0;
+        Slots table = slots;
+        for (int offset = 0; offset < segment.position; ) {
+            int length = segment.buffer.getInt(offset);
+            int slot = segment.buffer.getInt(offset + Integer.BYTES);
+            if (table.locations.get(slot) == location(segment.number, offset)) {
+                var body = segment.buffer.slice(offset + RECORD_HEADER, length);
+                table.locations.set(slot, append(body, slot));
+                moved += RECORD_HEADER + length;
+            }
+            offset += RECORD_HEADER + length;
+        }
+        storedBytes.addAndGet(-moved);
+        logger.debug("Compacted post bodies segment {}, moved {} of {} bytes", segment.file, moved, segment.position);
+        delete(segment);
+    }
+
+    /**
+     * Appends the record to the current segment and counts it as live, called while holding the lock.
+     *
+     * @return location of the record
+     */
+    private long append(ByteBuffer body, int slot) {
+        int recordSize = RECORD_HEADER + body.remaining();
+        if (current == null || current.buffer.capacity() - current.position < recordSize) {
+            retireCurrent();
+            current = openSegment(Math.max(segmentSize, recordSize));
+        }
+        int offset = current.position;
+        ByteBuffer record = current.buffer.duplicate();
+        record.position(offset);
+        record.putInt(body.remaining()).putInt(slot).put(body);
+        current.position += recordSize;
+        current.liveBytes += recordSize;
+        storedBytes.addAndGet(recordSize);
+        return location(current.number, offset);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (usedSlots == slots.length) {
+            slots = slots.grow();
+        }
+        return usedSlots++;
+    }
+
+    private void freeSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * A full segment whose texts were all released while it was current is deleted when it is replaced.
+     */
+    private void retireCurrent() {
+        if (current != null && current.liveBytes == 0) {
+            delete(current);
+        }
+        current = null;
+    }
+
+    private Segment openSegment(int size) {
+        int number = nextSegment++;
+        Path file = directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Segment segment = new Segment(number, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segments.put(number, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failure create post bodies segment " + file, e);
+        }
+    }
+
+    private void delete(Segment segment) {
+        segments.remove(segment.number);
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            logger.error("Failure delete post bodies segment {}", segment.file, e);
+        }
+    }
+
+    private void deleteSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static long location(int segment, int offset) {
+        return (long) segment << 32 | offset;
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    private static int slotOf(long reference) {
+        return (int) (reference >>> 32);
+    }
+
+    private static int generationOf(long reference) {
+        return (int) reference;
+    }
+
+    /**
+     * Location and generation per slot, replaced by a larger copy while holding the lock of the store.
+     */
+    private static final class Slots {
+
+        private final int length;
+
+        private final AtomicLongArray locations;
+
+        private final AtomicIntegerArray generations;
+
+        private Slots(int length) {
+            this.length = length;
+            this.locations = new AtomicLongArray(length);
+            this.generations = new AtomicIntegerArray(length);
+            for (int i = 0; i < length; i++) {
+                locations.set(i, FREE);
+            }
+        }
+
+        private Slots grow() {
+            Slots grown = new Slots(length * 2);
+            for (int i = 0; i < length; i++) {
+                grown.locations.set(i, locations.get(i));
+                grown.generations.set(i, generations.get(i));
+            }
+            return grown;
+        }
+    }
+
+    private static final class Segment {
+
+        private final int number;
+
+        private final Path file;
+
+        private final MappedByteBuffer buffer;
+
+        private int position;
+
+        private long liveBytes;
+
+        private Segment(int number, Path file, MappedByteBuffer buffer) {
+            this.number = number;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package my.blog.repositories.bodies;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+@ConfigurationProperties("blog.storage.bodies")
+@Getter
+@Setter
+public class PostBodyConfiguration {
+
+    public static final String MAPPED = "mapped";
+
+    private String type = "heap";
+
+    private String directory = "data/bodies";
+
+    private int segmentSizeMb = 256;
+
+    /**
+     * Share of live texts below which a full segment is compacted
+     */
+    private double compactionThreshold = 0.5;
+}
@@ -0,0 +1,29 @@
+package my.blog.repositories.bodies;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Holds post texts outside of the Java heap, the heap keeps only a reference per text.
+ */
+public interface PostBodyStore {
+
+    /**
+     * @param body UTF-8 text
+     * @return reference of the stored text
+     */
+    long write(byte[] body);
+
+    /**
+     * @return read-only view of the text, or null when it was released in the meantime
+     */
+    ByteBuffer read(long reference);
+
+    void release(long reference);
+
+    void clear();
+
+    /**
+     * @return bytes taken by texts that are not released
+     */
+    long storedBytes();
+}
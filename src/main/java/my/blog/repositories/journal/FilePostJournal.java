@@ -0,0 +1,494 @@
+package my.blog.repositories.journal;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.scheduling.annotation.Scheduled;
+import my.blog.models.Post;
+import my.blog.repositories.MemoryStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of the in-memory store, enabled with {@code blog.storage.journal.enabled: true}.
+ * <p>
+ * Writers only enqueue framed records; a single writer thread drains the queue and writes each group with
+ * one {@link FileChannel} write, so concurrent writers share the cost of a write and of a force (group commit).
+ * Snapshots rotate the log to a new generation and then dump the store, on startup the store is rebuilt
+ * from the memory-mapped snapshot plus every log of the snapshot's generation and later. Save records carry
+ * the whole post and delete records only an id, so replaying a record already contained in the snapshot is harmless.
+ * <p>
+ * A failed write cuts the log back to where its records started, or moves on to a new generation when that fails too,
+ * so neither the failed records nor a torn frame in front of later records stay in the log. A failed force
+ * stops the journal: written records can no longer be known durable, and every later append fails.
+ */
+@Context
+@Requires(property = "blog.storage.journal.enabled", value = "true")
+public class FilePostJournal implements PostJournal, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilePostJournal.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x424c4f47;
+
+    private static final int SNAPSHOT_FORMAT = 1;
+
+    private static final int SNAPSHOT_HEADER = Integer.BYTES * 2 + Long.BYTES * 3;
+
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+
+    private static final String LOG_PREFIX = "journal-";
+
+    private static final String LOG_SUFFIX = ".log";
+
+    private static final int MAX_GROUP = 1024;
+
+    private final MemoryStorage storage;
+
+    private final Path directory;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final int fsyncBatchSize;
+
+    private final long fsyncIntervalNanos;
+
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+
+    private final ByteBuffer groupBuffer = ByteBuffer.allocateDirect(1 << 20);
+
+    private final Thread writer;
+
+    private volatile boolean running;
+
+    private volatile long generation;
+
+    private volatile IOException failure;
+
+    private FileChannel log;
+
+    private int unsynced;
+
+    private long lastSync = System.nanoTime();
+
+    public FilePostJournal(JournalConfiguration configuration, MemoryStorage storage) {
+        this.storage = storage;
+        this.directory = Paths.get(configuration.getDirectory());
+        this.fsyncPolicy = configuration.getFsync();
+        this.fsyncBatchSize = configuration.getFsyncBatchSize();
+        this.fsyncIntervalNanos = configuration.getFsyncInterval().toNanos();
+        try {
+            Files.createDirectories(directory);
+            boolean recovered = recover();
+            log = openLog(generation);
+            this.writer = new Thread(this::writeLoop, "post-journal-writer");
+            writer.setDaemon(true);
+            running = true;
+            writer.start();
+            if (!recovered) {
+                snapshot();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failure open post journal in " + directory, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> appendSave(Post post) {
+        return enqueue(new Append(PostRecords.save(post), null));
+    }
+
+    @Override
+    public CompletableFuture<Void> appendDelete(long id) {
+        return enqueue(new Append(PostRecords.delete(id), null));
+    }
+
+    @Scheduled(fixedDelay = "${blog.storage.journal.snapshot-interval:10m}", initialDelay = "${blog.storage.journal.snapshot-interval:10m}")
+    void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (IOException e) {
+            logger.error("Failure write snapshot of posts", e);
+        }
+    }
+
+    /**
+     * Switches the log to a new generation and writes every post to a new snapshot,
+     * afterwards the logs of older generations are no longer needed and are deleted.
+     */
+    public synchronized void snapshot() throws IOException {
+        long started = System.nanoTime();
+        try {
+            storage.write(() -> enqueue(new Append(null, this::rotate))).join();
+        } catch (CompletionException e) {
+            throw new IOException("Failure rotate post journal", e.getCause());
+        }
+        long logGeneration = generation;
+
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_FORMAT).putLong(logGeneration).putLong(storage.getSequence()).putLong(0L);
+            for (Post post : storage.values()) {
+                byte[] record = PostRecords.save(post);
+                if (buffer.remaining() < record.length) {
+                    drain(channel, buffer);
+                }
+                if (buffer.remaining() < record.length) {
+                    writeFully(channel, ByteBuffer.wrap(record));
+                } else {
+                    buffer.put(record);
+                }
+                count++;
+            }
+            drain(channel, buffer);
+            buffer.putLong(count).flip();
+            channel.write(buffer, SNAPSHOT_HEADER - Long.BYTES);
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Path oldLog : logs()) {
+            if (generationOf(oldLog) < logGeneration) {
+                Files.deleteIfExists(oldLog);
+            }
+        }
+        logger.info("Snapshot of {} posts written in {} ms", count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(Append append) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Post journal is closed"));
+        }
+        if (failure != null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Post journal stopped after a failed force", failure));
+        }
+        queue.add(append);
+        return append.done;
+    }
+
+    private void writeLoop() {
+        long pollNanos = fsyncPolicy == FsyncPolicy.BATCH ? fsyncIntervalNanos : TimeUnit.MILLISECONDS.toNanos(100);
+        List<Append> group = new ArrayList<>(MAX_GROUP);
+        while (running || !queue.isEmpty()) {
+            try {
+                Append first = queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    if (unsynced > 0 && failure == null) {
+                        syncOrStop();
+                    }
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP - 1);
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failure write post journal", e);
+                group.forEach(append -> append.done.completeExceptionally(e));
+            }
+            group.clear();
+        }
+        try {
+            if (failure == null) {
+                sync();
+            }
+            log.close();
+        } catch (IOException e) {
+            logger.error("Failure close post journal", e);
+        }
+    }
+
+    /**
+     * Writes the records between commands as one batch each, every append is completed once its batch is settled.
+     */
+    private void writeGroup(List<Append> group) {
+        int from = 0;
+        for (int i = 0; i < group.size(); i++) {
+            Append append = group.get(i);
+            if (append.command != null) {
+                writeRecords(group.subList(from, i));
+                run(append);
+                from = i + 1;
+            }
+        }
+        writeRecords(group.subList(from, group.size()));
+    }
+
+    private void writeRecords(List<Append> appends) {
+        if (appends.isEmpty()) {
+            return;
+        }
+        if (failure != null) {
+            appends.forEach(append -> append.done.completeExceptionally(
+                    new IllegalStateException("Post journal stopped after a failed force", failure)));
+            return;
+        }
+        long start = -1;
+        try {
+            start = log.position();
+            for (Append append : appends) {
+                byte[] record = append.record;
+                if (groupBuffer.remaining() < record.length) {
+                    drain(log, groupBuffer);
+                }
+                if (groupBuffer.remaining() < record.length) {
+                    writeFully(log, ByteBuffer.wrap(record));
+                } else {
+                    groupBuffer.put(record);
+                }
+            }
+            drain(log, groupBuffer);
+        } catch (IOException e) {
+            logger.error("Failure write post journal, {} records discarded", appends.size(), e);
+            groupBuffer.clear();
+            discardFrom(start);
+            appends.forEach(append -> append.done.completeExceptionally(e));
+            return;
+        }
+        unsynced += appends.size();
+        if (fsyncPolicy == FsyncPolicy.ALWAYS
+                || (fsyncPolicy == FsyncPolicy.BATCH && (unsynced >= fsyncBatchSize || System.nanoTime() - lastSync >= fsyncIntervalNanos))) {
+            syncOrStop();
+        }
+        appends.forEach(append -> append.done.complete(null));
+    }
+
+    private void run(Append append) {
+        try {
+            append.command.run();
+            append.done.complete(null);
+        } catch (RuntimeException e) {
+            logger.error("Failure run post journal command", e);
+            append.done.completeExceptionally(e instanceof UncheckedIOException ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * Cuts the log back to the start of a failed batch, a log whose position or size is unknown is left behind
+     * for a new generation; replay then stops at its torn tail.
+     */
+    private void discardFrom(long start) {
+        if (start >= 0) {
+            try {
+                log.truncate(start);
+                log.position(start);
+                return;
+            } catch (IOException e) {
+                logger.error("Failure truncate post journal to {} bytes", start, e);
+            }
+        }
+        try {
+            switchLog();
+        } catch (IOException e) {
+            stop(e);
+        }
+    }
+
+    /**
+     * Records already written are not failed: the store would drop them while recovery would bring them back.
+     */
+    private void syncOrStop() {
+        try {
+            sync();
+        } catch (IOException e) {
+            stop(e);
+        }
+    }
+
+    private void stop(IOException e) {
+        logger.error("Post journal stopped, further changes are rejected", e);
+        failure = e;
+    }
+
+    private void sync() throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            log.force(false);
+        }
+        unsynced = 0;
+        lastSync = System.nanoTime();
+    }
+
+    /**
+     * Keeps the current log when the next one can not be opened, so a failed rotation only fails the snapshot.
+     */
+    private void rotate() {
+        if (failure != null) {
+            throw new IllegalStateException("Post journal stopped after a failed force", failure);
+        }
+        syncOrStop();
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+        try {
+            switchLog();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void switchLog() throws IOException {
+        FileChannel next = openLog(generation + 1);
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.warn("Failure close post journal of generation {}", generation, e);
+        }
+        log = next;
+        generation = generation + 1;
+    }
+
+    /**
+     * @return false when there was nothing to recover and the store is left as it is
+     */
+    private boolean recover() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        List<Path> logs = logs();
+        if (!Files.exists(snapshot) && logs.isEmpty()) {
+            generation = 1;
+            return false;
+        }
+        long started = System.nanoTime();
+        storage.clear();
+        long fromGeneration = Files.exists(snapshot) ? loadSnapshot(snapshot) : 0;
+        long lastGeneration = fromGeneration;
+        for (Path oldLog : logs) {
+            long logGeneration = generationOf(oldLog);
+            if (logGeneration >= fromGeneration) {
+                replay(oldLog);
+            }
+            lastGeneration = Math.max(lastGeneration, logGeneration);
+        }
+        generation = lastGeneration + 1;
+        logger.info("Recovered {} posts in {} ms", storage.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return true;
+    }
+
+    private long loadSnapshot(Path snapshot) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER);
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            channel.read(header, 0);
+        }
+        header.flip();
+        if (header.remaining() < SNAPSHOT_HEADER || header.getInt() != SNAPSHOT_MAGIC || header.getInt() != SNAPSHOT_FORMAT) {
+            throw new IOException("Unsupported snapshot " + snapshot);
+        }
+        long logGeneration = header.getLong();
+        storage.advanceSequence(header.getLong());
+        long count = header.getLong();
+        try (MappedRecordReader reader = new MappedRecordReader(snapshot, SNAPSHOT_HEADER)) {
+            for (long i = 0; i < count; i++) {
+                ByteBuffer payload = reader.next();
+                if (payload == null || payload.get() != PostRecords.SAVE) {
+                    throw new IOException("Corrupted snapshot " + snapshot + " at post " + i);
+                }
+                restore(PostRecords.readPost(payload));
+            }
+        }
+        return logGeneration;
+    }
+
+    private void replay(Path logFile) throws IOException {
+        try (MappedRecordReader reader = new MappedRecordReader(logFile, 0)) {
+            ByteBuffer payload;
+            while ((payload = reader.next()) != null) {
+                byte type = payload.get();
+                if (type == PostRecords.SAVE) {
+                    restore(PostRecords.readPost(payload));
+                } else if (type == PostRecords.DELETE) {
+                    storage.remove(payload.getLong());
+                }
+            }
+            if (reader.position() < Files.size(logFile)) {
+                logger.warn("Ignored torn tail of {} after {} bytes", logFile, reader.position());
+            }
+        }
+    }
+
+    private void restore(Post post) {
+        storage.save(post);
+        storage.advanceSequence(post.getId());
+    }
+
+    FileChannel openLog(long logGeneration) throws IOException {
+        return FileChannel.open(directory.resolve(LOG_PREFIX + logGeneration + LOG_SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private List<Path> logs() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        var name = file.getFileName().toString();
+                        return name.startsWith(LOG_PREFIX) && name.endsWith(LOG_SUFFIX);
+                    })
+                    .sorted((a, b) -> Long.compare(generationOf(a), generationOf(b)))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long generationOf(Path logFile) {
+        var name = logFile.getFileName().toString();
+        return Long.parseLong(name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length()));
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static final class Append {
+
+        private final byte[] record;
+
+        private final Runnable command;
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Append(byte[] record, Runnable command) {
+            this.record = record;
+            this.command = command;
+        }
+    }
+}
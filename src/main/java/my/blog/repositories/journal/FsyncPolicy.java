@@ -0,0 +1,16 @@
+package my.blog.repositories.journal;
+
+public enum FsyncPolicy {
+    /**
+     * Every group of appended records is forced to disk before the writers are released.
+     */
+    ALWAYS,
+    /**
+     * The log is forced after a number of records or an interval, whichever comes first.
+     */
+    BATCH,
+    /**
+     * The log is never forced, flushing is left to the operating system.
+     */
+    NEVER
+}
@@ -0,0 +1,25 @@
+package my.blog.repositories.journal;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+@ConfigurationProperties("blog.storage.journal")
+@Getter
+@Setter
+public class JournalConfiguration {
+
+    private boolean enabled;
+
+    private String directory = "data/journal";
+
+    private FsyncPolicy fsync = FsyncPolicy.BATCH;
+
+    private int fsyncBatchSize = 256;
+
+    private Duration fsyncInterval = Duration.ofMillis(50);
+
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,74 @@
+package my.blog.repositories.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads framed records from a file through a sliding memory-mapped window,
+ * so files larger than a single mapping can be replayed without copying them onto the heap.
+ */
+final class MappedRecordReader implements Closeable {
+
+    private static final long WINDOW = 256L << 20;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private long windowStart;
+
+    private MappedByteBuffer window;
+
+    MappedRecordReader(Path file, long offset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        map(Math.min(offset, size), WINDOW);
+    }
+
+    long position() {
+        return windowStart + window.position();
+    }
+
+    /**
+     * @return payload of the next record, or null at the end of the file or at a torn or corrupted record
+     */
+    ByteBuffer next() throws IOException {
+        long position = position();
+        if (size - position < PostRecords.FRAME_HEADER) {
+            return null;
+        }
+        if (window.remaining() < PostRecords.FRAME_HEADER) {
+            map(position, WINDOW);
+        }
+        int length = window.getInt(window.position());
+        int crc = window.getInt(window.position() + Integer.BYTES);
+        if (length < 0 || size - position - PostRecords.FRAME_HEADER < length) {
+            return null;
+        }
+        int frame = PostRecords.FRAME_HEADER + length;
+        if (window.remaining() < frame) {
+            map(position, Math.max(WINDOW, frame));
+        }
+        ByteBuffer payload = window.slice(window.position() + PostRecords.FRAME_HEADER, length);
+        if (PostRecords.crc(payload.duplicate()) != crc) {
+            return null;
+        }
+        window.position(window.position() + frame);
+        return payload;
+    }
+
+    private void map(long position, long length) throws IOException {
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(length, size - position));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
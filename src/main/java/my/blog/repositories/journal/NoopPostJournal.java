@@ -0,0 +1,24 @@
+package my.blog.repositories.journal;
+
+import io.micronaut.context.annotation.Requires;
+import my.blog.models.Post;
+
+import javax.inject.Singleton;
+import java.util.concurrent.CompletableFuture;
+
+@Singleton
+@Requires(property = "blog.storage.journal.enabled", notEquals = "true")
+public class NoopPostJournal implements PostJournal {
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    @Override
+    public CompletableFuture<Void> appendSave(Post post) {
+        return DONE;
+    }
+
+    @Override
+    public CompletableFuture<Void> appendDelete(long id) {
+        return DONE;
+    }
+}
@@ -0,0 +1,18 @@
+package my.blog.repositories.journal;
+
+import my.blog.models.Post;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Write-ahead log of the in-memory store.
+ * Appends are called under the lock of the post or the storage write lock, so the journal sees the changes of a post
+ * in the order they were made, the returned future completes once the change is as durable as the configured fsync
+ * policy makes it. The store applies a change only after its future completed normally.
+ */
+public interface PostJournal {
+
+    CompletableFuture<Void> appendSave(Post post);
+
+    CompletableFuture<Void> appendDelete(long id);
+}
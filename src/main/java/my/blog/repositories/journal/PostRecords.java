@@ -0,0 +1,127 @@
+package my.blog.repositories.journal;
+
+import my.blog.models.Post;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of journal records.
+ * A record is framed as {@code [int payload length][int crc32 of payload][payload]},
+ * the payload starts with the record type followed by a whole post or the id of a deleted post.
+ */
+final class PostRecords {
+
+    static final byte SAVE = 1;
+
+    static final byte DELETE = 2;
+
+    static final int FRAME_HEADER = Integer.BYTES * 2;
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private PostRecords() {
+    }
+
+    static byte[] save(Post post) {
+        byte[] guid = bytes(post.getGuid());
+        byte[] title = bytes(post.getTitle());
+        byte[] text = bytes(post.getText());
+        byte[] author = bytes(post.getAuthor());
+        int payload = 1 + Long.BYTES * 2 + sizeOf(guid) + sizeOf(title) + sizeOf(text) + sizeOf(author) + (Long.BYTES + Integer.BYTES) * 2;
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME_HEADER + payload);
+        buffer.position(FRAME_HEADER);
+        buffer.put(SAVE);
+        buffer.putLong(post.getId());
+        buffer.putLong(post.getVersion());
+        putBytes(buffer, guid);
+        putBytes(buffer, title);
+        putBytes(buffer, text);
+        putBytes(buffer, author);
+        putDate(buffer, post.getCreateDate());
+        putDate(buffer, post.getUpdateDate());
+        return frame(buffer);
+    }
+
+    static byte[] delete(long id) {
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME_HEADER + 1 + Long.BYTES);
+        buffer.position(FRAME_HEADER);
+        buffer.put(DELETE);
+        buffer.putLong(id);
+        return frame(buffer);
+    }
+
+    /**
+     * Reads the post of a save payload, the buffer must be positioned after the record type.
+     */
+    static Post readPost(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        String guid = getString(buffer);
+        Post post = Post.builder()
+                .title(getString(buffer))
+                .text(getString(buffer))
+                .author(getString(buffer))
+                .createDate(getDate(buffer))
+                .updateDate(getDate(buffer))
+                .build();
+        post.setId(id);
+        post.setGuid(guid);
+        post.setVersion(version);
+        return post;
+    }
+
+    static int crc(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] frame(ByteBuffer buffer) {
+        int payload = buffer.position() - FRAME_HEADER;
+        buffer.putInt(0, payload);
+        buffer.putInt(Integer.BYTES, crc(ByteBuffer.wrap(buffer.array(), FRAME_HEADER, payload)));
+        return buffer.array();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] value) {
+        return Integer.BYTES + (value == null ? 0 : value.length);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static void putDate(ByteBuffer buffer, LocalDateTime date) {
+        buffer.putLong(date == null ? NO_DATE : date.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(date == null ? 0 : date.getNano());
+    }
+
+    private static LocalDateTime getDate(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == NO_DATE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,257 @@
+package my.blog.search;
+
+import my.blog.models.Post;
+
+import javax.inject.Singleton;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Inverted index over title, text and author of posts, ranked with BM25.
+ * Title and author occurrences weigh more than text occurrences. Queries never lock,
+ * they read immutable posting snapshots and merge them document-at-a-time into a bounded top-k heap.
+ */
+@Singleton
+public class PostSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+
+    private static final int AUTHOR_WEIGHT = 2;
+
+    private static final int TEXT_WEIGHT = 1;
+
+    private static final float K1 = 1.2f;
+
+    private static final float B = 0.75f;
+
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+
+    private final Map<Long, String[]> documentTerms = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalLength = new AtomicLong();
+
+    private final Lock writeLock = new ReentrantLock();
+
+    /**
+     * Adds the post or replaces its previous revision.
+     */
+    public void index(Post post) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        Tokenizer.tokenize(post.getTitle(), term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        Tokenizer.tokenize(post.getAuthor(), term -> frequencies.merge(term, AUTHOR_WEIGHT, Integer::sum));
+        Tokenizer.tokenize(post.getText(), term -> frequencies.merge(term, TEXT_WEIGHT, Integer::sum));
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        long id = post.getId();
+
+        writeLock.lock();
+        try {
+            String[] previousTerms = documentTerms.get(id);
+            if (previousTerms != null) {
+                totalLength.addAndGet(-lengthOf(previousTerms, id));
+                for (String term : previousTerms) {
+                    if (!frequencies.containsKey(term)) {
+                        removePosting(term, id);
+                    }
+                }
+            }
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new PostingList()).put(id, frequency, length));
+            documentTerms.put(id, frequencies.keySet().toArray(new String[0]));
+            totalLength.addAndGet(length);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(long id) {
+        writeLock.lock();
+        try {
+            String[] terms = documentTerms.get(id);
+            if (terms == null) {
+                return;
+            }
+            totalLength.addAndGet(-lengthOf(terms, id));
+            for (String term : terms) {
+                removePosting(term, id);
+            }
+            documentTerms.remove(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void clear() {
+        writeLock.lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            totalLength.set(0);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return documentTerms.size();
+    }
+
+    /**
+     * @return ids of the best matching posts, best match first; a post matches if it contains any query term
+     */
+    public long[] search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        Tokenizer.tokenize(query, terms::add);
+        int documents = documentTerms.size();
+        if (terms.isEmpty() || documents == 0 || limit < 1) {
+            return new long[0];
+        }
+        float averageLength = Math.max(1f, (float) totalLength.get() / documents);
+
+        PostingList.Snapshot[] lists = new PostingList.Snapshot[terms.size()];
+        float[] idfs = new float[terms.size()];
+        int count = 0;
+        for (String term : terms) {
+            PostingList postingList = postings.get(term);
+            if (postingList != null) {
+                PostingList.Snapshot snapshot = postingList.read();
+                if (snapshot.size > 0) {
+                    lists[count] = snapshot;
+                    idfs[count] = (float) Math.log(1 + (documents - snapshot.size + 0.5) / (snapshot.size + 0.5));
+                    count++;
+                }
+            }
+        }
+
+        TopK top = new TopK(limit);
+        int[] cursors = new int[count];
+        while (true) {
+            long id = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                if (cursors[i] < lists[i].size) {
+                    id = Math.min(id, lists[i].ids[cursors[i]]);
+                }
+            }
+            if (id == Long.MAX_VALUE) {
+                break;
+            }
+            float score = 0;
+            for (int i = 0; i < count; i++) {
+                int cursor = cursors[i];
+                PostingList.Snapshot list = lists[i];
+                if (cursor < list.size && list.ids[cursor] == id) {
+                    float frequency = list.frequencies[cursor];
+                    float norm = K1 * (1 - B + B * list.lengths[cursor] / averageLength);
+                    score += idfs[i] * frequency * (K1 + 1) / (frequency + norm);
+                    cursors[i] = cursor + 1;
+                }
+            }
+            top.offer(id, score);
+        }
+        return top.idsByScore();
+    }
+
+    private void removePosting(String term, long id) {
+        PostingList postingList = postings.get(term);
+        if (postingList != null) {
+            postingList.remove(id);
+            if (postingList.size() == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private int lengthOf(String[] terms, long id) {
+        if (terms.length == 0) {
+            return 0;
+        }
+        PostingList.Snapshot snapshot = postings.get(terms[0]).read();
+        int position = Arrays.binarySearch(snapshot.ids, 0, snapshot.size, id);
+        return position < 0 ? 0 : snapshot.lengths[position];
+    }
+
+    /**
+     * Min-heap of the best scores seen so far.
+     */
+    private static final class TopK {
+
+        private final long[] ids;
+
+        private final float[] scores;
+
+        private int size;
+
+        private TopK(int limit) {
+            this.ids = new long[limit];
+            this.scores = new float[limit];
+        }
+
+        private void offer(long id, float score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        private long[] idsByScore() {
+            long[] result = new long[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = ids[0];
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (scores[parent] <= scores[index]) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package my.blog.search;
+
+import java.util.Arrays;
+
+/**
+ * Id-ordered postings of one term in primitive arrays.
+ * Mutations happen under the index write lock and publish a new immutable {@link Snapshot};
+ * appending a larger id writes past the end of the shared arrays, so the common create path is amortized O(1).
+ */
+final class PostingList {
+
+    static final class Snapshot {
+
+        final long[] ids;
+
+        final int[] frequencies;
+
+        final int[] lengths;
+
+        final int size;
+
+        private Snapshot(long[] ids, int[] frequencies, int[] lengths, int size) {
+            this.ids = ids;
+            this.frequencies = frequencies;
+            this.lengths = lengths;
+            this.size = size;
+        }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(new long[0], new int[0], new int[0], 0);
+
+    private volatile Snapshot snapshot = EMPTY;
+
+    Snapshot read() {
+        return snapshot;
+    }
+
+    int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * @param frequency weighted number of occurrences of the term in the post
+     * @param length    weighted number of terms of the post
+     */
+    void put(long id, int frequency, int length) {
+        Snapshot current = snapshot;
+        int size = current.size;
+        if (size == 0 || current.ids[size - 1] < id) {
+            long[] ids = current.ids;
+            int[] frequencies = current.frequencies;
+            int[] lengths = current.lengths;
+            if (size == ids.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                ids = Arrays.copyOf(ids, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            ids[size] = id;
+            frequencies[size] = frequency;
+            lengths[size] = length;
+            snapshot = new Snapshot(ids, frequencies, lengths, size + 1);
+            return;
+        }
+        int position = Arrays.binarySearch(current.ids, 0, size, id);
+        if (position >= 0) {
+            int[] frequencies = Arrays.copyOf(current.frequencies, size);
+            int[] lengths = Arrays.copyOf(current.lengths, size);
+            frequencies[position] = frequency;
+            lengths[position] = length;
+            snapshot = new Snapshot(Arrays.copyOf(current.ids, size), frequencies, lengths, size);
+            return;
+        }
+        int insertAt = -(position + 1);
+        long[] ids = new long[size + 1];
+        int[] frequencies = new int[size + 1];
+        int[] lengths = new int[size + 1];
+        copyAround(current, insertAt, ids, frequencies, lengths, 1);
+        ids[insertAt] = id;
+        frequencies[insertAt] = frequency;
+        lengths[insertAt] = length;
+        snapshot = new Snapshot(ids, frequencies, lengths, size + 1);
+    }
+
+    void remove(long id) {
+        Snapshot current = snapshot;
+        int position = Arrays.binarySearch(current.ids, 0, current.size, id);
+        if (position < 0) {
+            return;
+        }
+        int size = current.size - 1;
+        long[] ids = new long[size];
+        int[] frequencies = new int[size];
+        int[] lengths = new int[size];
+        System.arraycopy(current.ids, 0, ids, 0, position);
+        System.arraycopy(current.frequencies, 0, frequencies, 0, position);
+        System.arraycopy(current.lengths, 0, lengths, 0, position);
+        System.arraycopy(current.ids, position + 1, ids, position, size - position);
+        System.arraycopy(current.frequencies, position + 1, frequencies, position, size - position);
+        System.arraycopy(current.lengths, position + 1, lengths, position, size - position);
+        snapshot = new Snapshot(ids, frequencies, lengths, size);
+    }
+
+    private static void copyAround(Snapshot from, int gapAt, long[] ids, int[] frequencies, int[] lengths, int gap) {
+        System.arraycopy(from.ids, 0, ids, 0, gapAt);
+        System.arraycopy(from.frequencies, 0, frequencies, 0, gapAt);
+        System.arraycopy(from.lengths, 0, lengths, 0, gapAt);
+        System.arraycopy(from.ids, gapAt, ids, gapAt + gap, from.size - gapAt);
+        System.arraycopy(from.frequencies, gapAt, frequencies, gapAt + gap, from.size - gapAt);
+        System.arraycopy(from.lengths, gapAt, lengths, gapAt + gap, from.size - gapAt);
+    }
+}
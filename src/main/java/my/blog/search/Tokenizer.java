@@ -0,0 +1,41 @@
+package my.blog.search;
+
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lower-cased runs of letters and digits, single characters are dropped.
+ */
+final class Tokenizer {
+
+    private static final int MIN_LENGTH = 2;
+
+    private static final int MAX_LENGTH = 64;
+
+    private Tokenizer() {
+    }
+
+    static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder(16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (token.length() < MAX_LENGTH) {
+                    token.append(Character.toLowerCase(c));
+                }
+            } else {
+                emit(token, sink);
+            }
+        }
+        emit(token, sink);
+    }
+
+    private static void emit(StringBuilder token, Consumer<String> sink) {
+        if (token.length() >= MIN_LENGTH) {
+            sink.accept(token.toString());
+        }
+        token.setLength(0);
+    }
+}
@@ -0,0 +1,77 @@
+package my.blog.services;
+
+import my.blog.models.Post;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in the post listing.
+ * Encoded as url-safe base64 so clients treat it as a token and never build it themselves.
+ */
+public final class PostCursor {
+
+    public enum Order {
+        ID, CREATE_DATE
+    }
+
+    private final Order order;
+
+    private final long id;
+
+    private final LocalDateTime createDate;
+
+    private PostCursor(Order order, long id, LocalDateTime createDate) {
+        this.order = order;
+        this.id = id;
+        this.createDate = createDate;
+    }
+
+    public static PostCursor start(Order order) {
+        return new PostCursor(order, 0L, null);
+    }
+
+    public static PostCursor after(Order order, Post post) {
+        return new PostCursor(order, post.getId(), order == Order.CREATE_DATE ? post.getCreateDate() : null);
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public LocalDateTime getCreateDate() {
+        return createDate;
+    }
+
+    public String encode() {
+        String raw = order == Order.ID
+                ? "i:" + id
+                : "d:" + createDate.toEpochSecond(ZoneOffset.UTC) + ":" + createDate.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static PostCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length == 2 && parts[0].equals("i")) {
+                return new PostCursor(Order.ID, Long.parseLong(parts[1]), null);
+            }
+            if (parts.length == 4 && parts[0].equals("d")) {
+                var createDate = LocalDateTime.ofEpochSecond(Long.parseLong(parts[1]), Integer.parseInt(parts[2]), ZoneOffset.UTC);
+                return new PostCursor(Order.CREATE_DATE, Long.parseLong(parts[3]), createDate);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+}
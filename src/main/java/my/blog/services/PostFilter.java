@@ -0,0 +1,65 @@
+package my.blog.services;
+
+import java.time.LocalDateTime;
+
+/**
+ * Restriction of the post listing to an author and/or a creation date window [from, to).
+ * Listings of an author alone are ordered by id, listings with a date window by creation date,
+ * so each is served as a range of its own secondary index.
+ */
+public final class PostFilter {
+
+    private static final PostFilter NONE = new PostFilter(null, null, null);
+
+    private final String author;
+
+    private final LocalDateTime from;
+
+    private final LocalDateTime to;
+
+    private PostFilter(String author, LocalDateTime from, LocalDateTime to) {
+        this.author = author;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static PostFilter none() {
+        return NONE;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the window is empty
+     */
+    public static PostFilter of(String author, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("From must be before to");
+        }
+        return new PostFilter(author, from, to);
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public boolean isEmpty() {
+        return author == null && from == null && to == null;
+    }
+
+    /**
+     * Order the filtered listing is returned in, null when any order can be served.
+     */
+    public PostCursor.Order requiredOrder() {
+        if (from != null || to != null) {
+            return PostCursor.Order.CREATE_DATE;
+        }
+        return author != null ? PostCursor.Order.ID : null;
+    }
+}
@@ -1,10 +1,20 @@
 package my.blog.services;
 
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.reactivex.Flowable;
+import my.blog.events.PostChange;
+import my.blog.events.PostChangeFeed;
+import my.blog.events.PostMutationEvent;
+import my.blog.metrics.RepositoryMetrics;
+import my.blog.metrics.RepositoryMetrics.Operation;
 import my.blog.models.Post;
+import my.blog.repositories.PostContent;
 import my.blog.repositories.PostRepository;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,27 +24,142 @@ public class PostMemService implements PostService {
     @Inject
     private PostRepository memoryRepo;
 
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
+    @Inject
+    private RepositoryMetrics repositoryMetrics;
+
+    @Inject
+    private PostChangeFeed changeFeed;
+
+    @Value("${blog.posts.stream.batch-size:100}")
+    private int streamBatchSize;
+
     public List<Post> getAllPosts() {
-        return memoryRepo.findAllPosts();
+        return repositoryMetrics.timed(Operation.FIND_ALL, memoryRepo::findAllPosts);
+    }
+
+    @Override
+    public List<Post> getPosts(long offset, int limit) {
+        return repositoryMetrics.timed(Operation.FIND_PAGE, () -> memoryRepo.findPosts(offset, limit));
+    }
+
+    @Override
+    public List<Post> getPostsAfter(PostCursor cursor, int limit) {
+        if (cursor.getOrder() == PostCursor.Order.CREATE_DATE) {
+            return repositoryMetrics.timed(Operation.FIND_AFTER_CREATE_DATE, () -> memoryRepo.findPostsAfterCreateDate(cursor.getCreateDate(), cursor.getId(), limit));
+        }
+        return repositoryMetrics.timed(Operation.FIND_AFTER_ID, () -> memoryRepo.findPostsAfterId(cursor.getId(), limit));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor order does not match the order the filter is served in
+     */
+    @Override
+    public List<Post> getPostsAfter(PostCursor cursor, PostFilter filter, int limit) {
+        if (filter.isEmpty()) {
+            return getPostsAfter(cursor, limit);
+        }
+        if (cursor.getOrder() != filter.requiredOrder()) {
+            throw new IllegalArgumentException("Filtered posts are listed in "
+                    + (filter.requiredOrder() == PostCursor.Order.ID ? "id" : "createDate") + " order");
+        }
+        if (filter.getAuthor() != null && cursor.getOrder() == PostCursor.Order.ID) {
+            return repositoryMetrics.timed(Operation.FIND_BY_AUTHOR, () -> memoryRepo.findPostsByAuthor(filter.getAuthor(), cursor.getId(), limit));
+        }
+        if (filter.getAuthor() != null) {
+            return repositoryMetrics.timed(Operation.FIND_BY_AUTHOR_CREATED_BETWEEN, () -> memoryRepo.findPostsByAuthorCreatedBetween(filter.getAuthor(), filter.getFrom(), filter.getTo(), cursor.getCreateDate(), cursor.getId(), limit));
+        }
+        return repositoryMetrics.timed(Operation.FIND_CREATED_BETWEEN, () -> memoryRepo.findPostsCreatedBetween(filter.getFrom(), filter.getTo(), cursor.getCreateDate(), cursor.getId(), limit));
+    }
+
+    /**
+     * Walks the store by id cursor one batch at a time, a batch is read only when the subscriber
+     * requests more items, so at most two batches are held per stream.
+     */
+    @Override
+    public Flowable<Post> streamAllPosts() {
+        return Flowable.<List<Post>, PostCursor>generate(() -> PostCursor.start(PostCursor.Order.ID), (position, emitter) -> {
+            List<Post> batch = getPostsAfter(position, streamBatchSize);
+            if (batch.isEmpty()) {
+                emitter.onComplete();
+                return position;
+            }
+            emitter.onNext(batch);
+            if (batch.size() < streamBatchSize) {
+                emitter.onComplete();
+            }
+            return PostCursor.after(PostCursor.Order.ID, batch.get(batch.size() - 1));
+        }).concatMapIterable(batch -> batch, 2);
+    }
+
+    @Override
+    public Flowable<PostChange> streamChanges(String lastEventId) {
+        return changeFeed.changesAfter(lastEventId);
     }
 
     @Override
     public Optional<Post> getById(long id) {
-        return memoryRepo.findById(id);
+        return repositoryMetrics.timed(Operation.FIND_BY_ID, () -> memoryRepo.findById(id));
+    }
+
+    @Override
+    public Optional<PostContent> getContentById(long id) {
+        return repositoryMetrics.timed(Operation.FIND_CONTENT_BY_ID, () -> memoryRepo.findContentById(id));
+    }
+
+    @Override
+    public List<Post> searchPosts(String query, int limit) {
+        return repositoryMetrics.timed(Operation.SEARCH, () -> memoryRepo.searchPosts(query, limit));
     }
 
     @Override
     public Optional<Post> updatePost(Post post) {
-        return memoryRepo.updatePost(post);
+        var updatedPost = repositoryMetrics.timed(Operation.UPDATE, () -> memoryRepo.updatePost(post));
+        updatedPost.ifPresent(updated -> eventPublisher.publishEvent(PostMutationEvent.updated(updated)));
+        return updatedPost;
     }
 
     @Override
     public boolean deletePostById(long id) {
-        return memoryRepo.deletePostById(id);
+        var deleted = repositoryMetrics.timed(Operation.DELETE, () -> memoryRepo.deletePostById(id));
+        if (deleted) {
+            eventPublisher.publishEvent(PostMutationEvent.deleted(id));
+        }
+        return deleted;
     }
 
     @Override
     public Post createPost(Post post) {
-        return memoryRepo.createPost(post);
+        var createdPost = repositoryMetrics.timed(Operation.CREATE, () -> memoryRepo.createPost(post));
+        eventPublisher.publishEvent(PostMutationEvent.created(createdPost));
+        return createdPost;
+    }
+
+    @Override
+    public List<Post> createPosts(Collection<Post> posts) {
+        var createdPosts = repositoryMetrics.timed(Operation.CREATE_BATCH, () -> memoryRepo.createPosts(posts));
+        createdPosts.forEach(created -> eventPublisher.publishEvent(PostMutationEvent.created(created)));
+        return createdPosts;
+    }
+
+    @Override
+    public List<Optional<Post>> updatePosts(Collection<Post> posts) {
+        var updatedPosts = repositoryMetrics.timed(Operation.UPDATE_BATCH, () -> memoryRepo.updatePosts(posts));
+        updatedPosts.forEach(updatedPost -> updatedPost.ifPresent(updated -> eventPublisher.publishEvent(PostMutationEvent.updated(updated))));
+        return updatedPosts;
+    }
+
+    @Override
+    public List<Boolean> deletePostsByIds(Collection<Long> ids) {
+        var deleted = repositoryMetrics.timed(Operation.DELETE_BATCH, () -> memoryRepo.deletePostsByIds(ids));
+        int i = 0;
+        for (long id : ids) {
+            if (deleted.get(i++)) {
+                eventPublisher.publishEvent(PostMutationEvent.deleted(id));
+            }
+        }
+        return deleted;
     }
 }
@@ -1,7 +1,11 @@
 package my.blog.services;
 
+import io.reactivex.Flowable;
+import my.blog.events.PostChange;
 import my.blog.models.Post;
+import my.blog.repositories.PostContent;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,11 +13,35 @@ public interface PostService {
 
     List<Post> getAllPosts();
 
+    List<Post> getPosts(long offset, int limit);
+
+    List<Post> getPostsAfter(PostCursor cursor, int limit);
+
+    List<Post> getPostsAfter(PostCursor cursor, PostFilter filter, int limit);
+
+    Flowable<Post> streamAllPosts();
+
+    /**
+     * @param lastEventId event id of the last change seen, null to follow only new changes
+     * @return created, updated and deleted posts in the order they were changed
+     */
+    Flowable<PostChange> streamChanges(String lastEventId);
+
     Optional<Post> getById(long id);
 
+    Optional<PostContent> getContentById(long id);
+
+    List<Post> searchPosts(String query, int limit);
+
     Optional<Post> updatePost(Post post);
 
     boolean deletePostById(long id);
 
     Post createPost(Post post);
+
+    List<Post> createPosts(Collection<Post> posts);
+
+    List<Optional<Post>> updatePosts(Collection<Post> posts);
+
+    List<Boolean> deletePostsByIds(Collection<Long> ids);
 }
@@ -0,0 +1,62 @@
+package my.blog.services;
+
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import my.blog.events.PostMutationEvent;
+import my.blog.models.Post;
+import my.blog.repositories.ReactivePostRepository;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+@Singleton
+public class ReactivePostMemService implements ReactivePostService {
+
+    @Inject
+    private ReactivePostRepository repository;
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Flowable<Post> getPostsAfter(PostCursor cursor, int limit) {
+        if (cursor.getOrder() == PostCursor.Order.CREATE_DATE) {
+            return repository.findPostsAfterCreateDate(cursor.getCreateDate(), cursor.getId(), limit);
+        }
+        return repository.findPostsAfterId(cursor.getId(), limit);
+    }
+
+    @Override
+    public Maybe<Post> getById(long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Flowable<Post> searchPosts(String query, int limit) {
+        return repository.searchPosts(query, limit);
+    }
+
+    @Override
+    public Maybe<Post> updatePost(Post post) {
+        return repository.updatePost(post)
+                .doOnSuccess(updated -> eventPublisher.publishEvent(PostMutationEvent.updated(updated)));
+    }
+
+    @Override
+    public Single<Boolean> deletePostById(long id) {
+        return repository.deletePostById(id)
+                .doOnSuccess(deleted -> {
+                    if (deleted) {
+                        eventPublisher.publishEvent(PostMutationEvent.deleted(id));
+                    }
+                });
+    }
+
+    @Override
+    public Single<Post> createPost(Post post) {
+        return repository.createPost(post)
+                .doOnSuccess(created -> eventPublisher.publishEvent(PostMutationEvent.created(created)));
+    }
+}
@@ -0,0 +1,21 @@
+package my.blog.services;
+
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import my.blog.models.Post;
+
+public interface ReactivePostService {
+
+    Flowable<Post> getPostsAfter(PostCursor cursor, int limit);
+
+    Maybe<Post> getById(long id);
+
+    Flowable<Post> searchPosts(String query, int limit);
+
+    Maybe<Post> updatePost(Post post);
+
+    Single<Boolean> deletePostById(long id);
+
+    Single<Post> createPost(Post post);
+}
@@ -0,0 +1,4 @@
+ALTER TABLE wb_posts ADD COLUMN version BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE wb_posts ADD COLUMN updateDate TIMESTAMPTZ;
+
+CREATE INDEX IF NOT EXISTS wb_posts_create_date_idx ON wb_posts (createDate, id);
@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS wb_users (
+    username VARCHAR NOT NULL PRIMARY KEY,
+    passwordHash VARCHAR NOT NULL,
+    roles VARCHAR
+);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS wb_posts_author_create_date_idx ON wb_posts (author, createDate, id);
@@ -0,0 +1,89 @@
+package my.blog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.BeanDefinition;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caffeine instantiates a generated class per cache configuration by reflection, so the native image needs each of
+ * them in the reflection config. Checks the caches held by the beans of the application against it.
+ */
+@MicronautTest
+class NativeImageConfigTest {
+
+    private static final String REFLECT_CONFIG = "META-INF/native-image/my.blog/web-blog/reflect-config.json";
+
+    @Inject
+    ApplicationContext context;
+
+    @Test
+    void registersGeneratedClassesOfEveryCache() throws Exception {
+        Set<String> registered = registeredClasses();
+        Set<String> missing = new TreeSet<>();
+        int caches = 0;
+        for (BeanDefinition<?> definition : context.getAllBeanDefinitions()) {
+            Class<?> type = definition.getBeanType();
+            if (!type.getName().startsWith("my.blog.") || !definition.isSingleton()) {
+                continue;
+            }
+            Object bean = context.getBean(type);
+            for (Field field : type.getDeclaredFields()) {
+                if (!Cache.class.isAssignableFrom(field.getType())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Object cache = field.get(bean);
+                if (cache == null) {
+                    continue;
+                }
+                Object localCache = read(cache, "cache");
+                caches++;
+                for (Class<?> generated : Set.of(localCache.getClass(), read(localCache, "nodeFactory").getClass())) {
+                    if (!registered.contains(generated.getName())) {
+                        missing.add(generated.getName() + " of " + type.getSimpleName() + "." + field.getName());
+                    }
+                }
+            }
+        }
+
+        assertTrue(caches > 0);
+        assertEquals(Set.of(), missing);
+    }
+
+    private static Set<String> registeredClasses() throws IOException {
+        Set<String> names = new HashSet<>();
+        try (InputStream config = NativeImageConfigTest.class.getClassLoader().getResourceAsStream(REFLECT_CONFIG)) {
+            for (JsonNode entry : new ObjectMapper().readTree(config)) {
+                names.add(entry.get("name").asText());
+            }
+        }
+        return names;
+    }
+
+    private static Object read(Object target, String name) throws ReflectiveOperationException {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                return field.get(target);
+            } catch (NoSuchFieldException e) {
+                // declared by a superclass
+            }
+        }
+        throw new NoSuchFieldException(name + " of " + target.getClass());
+    }
+}
@@ -0,0 +1,74 @@
+package my.blog;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.exceptions.HttpClientException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import my.blog.models.Post;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the native executable started by the {@code nativeTest} Gradle task.
+ */
+@Tag("native")
+class NativeImageSmokeTest {
+
+    private static HttpClient httpClient;
+
+    private static BlockingHttpClient client;
+
+    @BeforeAll
+    static void connect() throws Exception {
+        httpClient = HttpClient.create(new URL(System.getProperty("blog.native.url", "http://localhost:18080")));
+        client = httpClient.toBlocking();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            try {
+                client.exchange("/posts");
+                return;
+            } catch (HttpClientException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    @AfterAll
+    static void close() {
+        httpClient.close();
+    }
+
+    @Test
+    void servesPostsAsJson() {
+        var response = client.exchange(HttpRequest.GET("/posts"), Argument.listOf(Post.class));
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertNotNull(response.body());
+        assertFalse(response.body().isEmpty());
+    }
+
+    @Test
+    void createsPostWithIssuedToken() {
+        var token = client.retrieve(HttpRequest.POST("/login", new UsernamePasswordCredentials("blog@gmail.net", "123456")),
+                BearerAccessRefreshToken.class);
+        var post = Post.builder().title("Native").text("Created by native image").author("Graal").build();
+
+        var created = client.retrieve(HttpRequest.PUT("/posts/create", post).bearerAuth(token.getAccessToken()), Post.class);
+
+        assertEquals("Native", created.getTitle());
+        assertTrue(created.getId() > 0);
+    }
+}
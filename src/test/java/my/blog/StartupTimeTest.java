@@ -0,0 +1,33 @@
+package my.blog;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.runtime.server.EmbeddedServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Startup regression guard, run by the {@code startupTest} Gradle task rather than with the other tests,
+ * whose load would make a wall-clock budget flaky. The task derives the budget ({@code -Dblog.startup.budget-ms})
+ * from the cold starts measured by {@code StartupBenchmark}.
+ */
+@Tag("startup")
+class StartupTimeTest {
+
+    private static final long BUDGET_MS = Long.getLong("blog.startup.budget-ms", 3000);
+
+    @Test
+    void firstResponseWithinBudget() {
+        long started = System.nanoTime();
+        try (EmbeddedServer server = ApplicationContext.run(EmbeddedServer.class, "startup");
+             HttpClient client = HttpClient.create(server.getURL())) {
+            client.toBlocking().retrieve("/posts");
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            assertTrue(elapsedMs <= BUDGET_MS, "First response after " + elapsedMs + " ms, budget is " + BUDGET_MS + " ms");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package my.blog.admission;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.errors.CustomHttpResponseError;
+import my.blog.models.Post;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "blog.http.admission.requests-per-second", value = "1")
+@Property(name = "blog.http.admission.burst", value = "3")
+@Property(name = "blog.http.admission.max-concurrent-expensive", value = "0")
+class AdmissionFilterTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Test
+    void shedsClientBeyondItsTokens() {
+        for (int i = 0; i < 3; i++) {
+            var response = client.toBlocking().exchange(HttpRequest.GET("/posts/1"), Post.class);
+            assertEquals(HttpStatus.OK, response.getStatus());
+        }
+
+        var refused = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.GET("/posts/1"), Post.class));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, refused.getStatus());
+        assertEquals("1", refused.getResponse().getHeaders().get(HttpHeaders.RETRY_AFTER));
+        var error = refused.getResponse().getBody(CustomHttpResponseError.class);
+        assertTrue(error.isPresent());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.getCode(), error.get().getStatus());
+    }
+
+    @Test
+    void shedsExpensiveRequestsBeyondConcurrencyCap() {
+        var credentials = new UsernamePasswordCredentials("blog@gmail.net", "123456");
+        var token = client.toBlocking().retrieve(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+
+        var refused = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.GET("/posts").bearerAuth(token.getAccessToken())));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, refused.getStatus());
+        assertEquals("1", refused.getResponse().getHeaders().get(HttpHeaders.RETRY_AFTER));
+    }
+}
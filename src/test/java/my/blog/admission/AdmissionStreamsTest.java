@@ -0,0 +1,64 @@
+package my.blog.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.client.sse.RxSseClient;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "blog.http.admission.max-concurrent-expensive", value = "1")
+@Property(name = "blog.http.admission.max-streams-per-client", value = "1")
+class AdmissionStreamsTest {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client;
+
+    @Inject
+    @Client("/")
+    RxSseClient sseClient;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void openStreamDoesNotHoldExpensiveSlot() throws InterruptedException {
+        var stream = sseClient.eventStream(HttpRequest.GET("/posts/changes"), Argument.mapOf(String.class, Object.class))
+                .subscribe(event -> { }, error -> { });
+        try {
+            awaitOpenStreams(1);
+
+            var page = client.toBlocking().exchange(HttpRequest.GET("/posts"), String.class);
+            assertEquals(HttpStatus.OK, page.getStatus());
+
+            var refused = assertThrows(HttpClientResponseException.class,
+                    () -> sseClient.eventStream(HttpRequest.GET("/posts/changes"), Argument.mapOf(String.class, Object.class))
+                            .timeout(10, TimeUnit.SECONDS)
+                            .blockingFirst());
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, refused.getStatus());
+        } finally {
+            stream.dispose();
+        }
+        awaitOpenStreams(0);
+    }
+
+    private void awaitOpenStreams(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.get("blog.http.streams.in-flight").gauge().value() != expected) {
+            assertTrue(System.nanoTime() < deadline, "Open streams did not reach " + expected);
+            Thread.sleep(10);
+        }
+    }
+}
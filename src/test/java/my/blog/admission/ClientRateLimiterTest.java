@@ -0,0 +1,75 @@
+package my.blog.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    private final ClientRateLimiter limiter = new ClientRateLimiter(configuration(10, 3), now::get);
+
+    @Test
+    void allowsBurstThenRefusesUntilRefilled() {
+        assertEquals(0, limiter.acquire("client"));
+        assertEquals(0, limiter.acquire("client"));
+        assertEquals(0, limiter.acquire("client"));
+
+        long wait = limiter.acquire("client");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        now.addAndGet(wait);
+        assertEquals(0, limiter.acquire("client"));
+        assertTrue(limiter.acquire("client") > 0);
+    }
+
+    @Test
+    void refusedRequestsDoNotTakeTokens() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("client");
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.acquire("client") > 0);
+        }
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, limiter.acquire("client"));
+    }
+
+    @Test
+    void idleClientIsFullAgain() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("client");
+        }
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("client"));
+        }
+        assertTrue(limiter.acquire("client") > 0);
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("first");
+        }
+
+        assertTrue(limiter.acquire("first") > 0);
+        assertEquals(0, limiter.acquire("second"));
+        assertEquals(2, limiter.clients());
+    }
+
+    private static AdmissionConfiguration configuration(int requestsPerSecond, int burst) {
+        AdmissionConfiguration configuration = new AdmissionConfiguration();
+        configuration.setRequestsPerSecond(requestsPerSecond);
+        configuration.setBurst(burst);
+        configuration.setClientIdleTimeout(Duration.ofMinutes(1));
+        return configuration;
+    }
+}
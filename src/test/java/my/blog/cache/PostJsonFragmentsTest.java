@@ -0,0 +1,42 @@
+package my.blog.cache;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.RxHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.jackson.codec.JsonMediaTypeCodec;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.models.Post;
+import my.blog.services.PostService;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class PostJsonFragmentsTest {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client;
+
+    @Inject
+    JsonMediaTypeCodec jsonCodec;
+
+    @Inject
+    PostService service;
+
+    @Test
+    void joinedPageIsSameJsonAsCodec() {
+        client.toBlocking().retrieve(HttpRequest.GET("/posts?offset=0"), String.class);
+
+        Post change = Post.builder().title("Fragment title").text("Fragment \"text\"").build();
+        change.setId(1L);
+        service.updatePost(change);
+
+        String body = client.toBlocking().retrieve(HttpRequest.GET("/posts?offset=0"), String.class);
+        assertEquals(new String(jsonCodec.encode(service.getPosts(0, 20)), StandardCharsets.UTF_8), body);
+        assertTrue(body.contains("Fragment title"));
+    }
+}
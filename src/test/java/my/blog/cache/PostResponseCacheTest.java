@@ -0,0 +1,42 @@
+package my.blog.cache;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.models.Post;
+import my.blog.services.PostService;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@MicronautTest
+class PostResponseCacheTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Inject
+    PostResponseCache responseCache;
+
+    @Inject
+    PostService service;
+
+    @Test
+    void servesRepeatedReadsFromCacheAndDropsUpdatedPost() {
+        long hitsBefore = responseCache.stats().hitCount();
+        client.toBlocking().retrieve(HttpRequest.GET("/posts/2"), Post.class);
+        client.toBlocking().retrieve(HttpRequest.GET("/posts/2"), Post.class);
+        assertEquals(hitsBefore + 1, responseCache.stats().hitCount());
+
+        Post change = Post.builder().title("Cached title").text("Cached text").build();
+        change.setId(2L);
+        service.updatePost(change);
+
+        var post = client.toBlocking().retrieve(HttpRequest.GET("/posts/2"), Post.class);
+        assertEquals("Cached title", post.getTitle());
+    }
+}
@@ -0,0 +1,69 @@
+package my.blog.controllers;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.controllers.responses.BatchItemResult;
+import my.blog.models.Post;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class PostControllerBatchTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Test
+    void createsUpdatesAndDeletesInBatches() {
+        var token = givenTestUserIsLoggedIn();
+
+        Post invalid = Post.builder().title("Invalid").build();
+        invalid.setId(10L);
+        var posts = List.of(Post.builder().title("Batch 1").text("Text 1").author("Brandon").build(), invalid);
+        var created = client.toBlocking().retrieve(HttpRequest.PUT("/posts/batch/create", posts)
+                .accept(MediaType.APPLICATION_JSON)
+                .bearerAuth(token.getAccessToken()), Argument.listOf(BatchItemResult.class));
+
+        assertEquals(2, created.size());
+        assertEquals(HttpStatus.OK.getCode(), created.get(0).getStatus());
+        assertEquals("Batch 1", created.get(0).getPost().getTitle());
+        assertEquals(HttpStatus.NOT_ACCEPTABLE.getCode(), created.get(1).getStatus());
+        long createdId = created.get(0).getId();
+
+        Post change = Post.builder().title("Batch 1 changed").text("Text 1 changed").build();
+        change.setId(createdId);
+        var updated = client.toBlocking().retrieve(HttpRequest.PUT("/posts/batch/update", List.of(change))
+                .accept(MediaType.APPLICATION_JSON)
+                .bearerAuth(token.getAccessToken()), Argument.listOf(BatchItemResult.class));
+
+        assertEquals("Batch 1 changed", updated.get(0).getPost().getTitle());
+
+        var deleted = client.toBlocking().retrieve(HttpRequest.DELETE("/posts/batch", List.of(createdId, 999L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bearerAuth(token.getAccessToken()), Argument.listOf(BatchItemResult.class));
+
+        assertEquals(HttpStatus.OK.getCode(), deleted.get(0).getStatus());
+        assertEquals(HttpStatus.NOT_ACCEPTABLE.getCode(), deleted.get(1).getStatus());
+    }
+
+    private BearerAccessRefreshToken givenTestUserIsLoggedIn() {
+        var credentials = new UsernamePasswordCredentials("blog@gmail.net", "123456");
+        var loginRsp = client.toBlocking().exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+        BearerAccessRefreshToken token = loginRsp.body();
+        assertNotNull(token);
+        return token;
+    }
+}
@@ -0,0 +1,76 @@
+package my.blog.controllers;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.sse.RxSseClient;
+import io.micronaut.http.sse.Event;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.events.PostChangeFeed;
+import my.blog.models.Post;
+import my.blog.services.PostService;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class PostControllerChangesTest {
+
+    @Inject
+    @Client("/")
+    RxSseClient sseClient;
+
+    @Inject
+    PostService service;
+
+    @Inject
+    PostChangeFeed feed;
+
+    @Test
+    void streamsChangesAfterSequence() {
+        long before = feed.lastSequence();
+        var created = service.createPost(Post.builder().title("Changed").text("Changed text").author("Brandon").build());
+        service.deletePostById(created.getId());
+
+        var events = sseClient.eventStream(HttpRequest.GET("/posts/changes?after=" + feed.eventId(before)), Argument.mapOf(String.class, Object.class))
+                .take(2)
+                .timeout(10, TimeUnit.SECONDS)
+                .toList()
+                .blockingGet();
+
+        Event<Map<String, Object>> createdEvent = events.get(0);
+        assertEquals(feed.eventId(before + 1), createdEvent.getId());
+        assertEquals("CREATED", createdEvent.getName());
+        assertEquals(created.getId(), ((Number) createdEvent.getData().get("postId")).longValue());
+        assertNotNull(createdEvent.getData().get("post"));
+        assertEquals("DELETED", events.get(1).getName());
+    }
+
+    @Test
+    void sendsGapForUnavailableSequence() {
+        var gap = sseClient.eventStream(HttpRequest.GET("/posts/changes?after=" + feed.eventId(feed.lastSequence() + 100)), Argument.mapOf(String.class, Object.class))
+                .timeout(10, TimeUnit.SECONDS)
+                .blockingFirst();
+
+        assertEquals(PostController.GAP_EVENT, gap.getName());
+        assertEquals(410, ((Number) gap.getData().get("status")).intValue());
+    }
+
+    @Test
+    void sendsGapForEventIdOfAnotherFeed() {
+        service.createPost(Post.builder().title("Changed").text("Changed text").author("Brandon").build());
+        var request = HttpRequest.GET("/posts/changes")
+                .header(PostController.LAST_EVENT_ID_HEADER, new PostChangeFeed(1).eventId(0));
+
+        var gap = sseClient.eventStream(request, Argument.mapOf(String.class, Object.class))
+                .timeout(10, TimeUnit.SECONDS)
+                .blockingFirst();
+
+        assertEquals(PostController.GAP_EVENT, gap.getName());
+        assertEquals(410, ((Number) gap.getData().get("status")).intValue());
+    }
+}
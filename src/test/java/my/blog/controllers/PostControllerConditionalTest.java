@@ -0,0 +1,56 @@
+package my.blog.controllers;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.models.Post;
+import my.blog.services.PostService;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class PostControllerConditionalTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Inject
+    PostService service;
+
+    @Test
+    void answersNotModifiedForCurrentPostRevision() {
+        var response = client.toBlocking().exchange(HttpRequest.GET("/posts/3"), Post.class);
+        String etag = response.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertNotNull(response.getHeaders().get(HttpHeaders.LAST_MODIFIED));
+
+        var conditional = client.toBlocking().exchange(HttpRequest.GET("/posts/3").header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getStatus());
+
+        Post change = Post.builder().title("Changed title").text("Changed text").build();
+        change.setId(3L);
+        service.updatePost(change);
+
+        var changed = client.toBlocking().exchange(HttpRequest.GET("/posts/3").header(HttpHeaders.IF_NONE_MATCH, etag), Post.class);
+        assertEquals(HttpStatus.OK, changed.getStatus());
+        assertNotEquals(etag, changed.getHeaders().get(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void answersNotModifiedForUnchangedPage() {
+        var response = client.toBlocking().exchange(HttpRequest.GET("/posts"), Argument.listOf(Post.class));
+        String etag = response.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        var conditional = client.toBlocking().exchange(HttpRequest.GET("/posts").header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getStatus());
+    }
+}
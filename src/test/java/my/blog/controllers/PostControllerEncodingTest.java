@@ -0,0 +1,93 @@
+package my.blog.controllers;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.RxHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.encoding.CborMediaTypeCodec;
+import my.blog.encoding.ResponseCompressor;
+import my.blog.models.Post;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "blog.http.compression.threshold", value = "0")
+class PostControllerEncodingTest {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client;
+
+    @Inject
+    EmbeddedServer server;
+
+    private final HttpClient rawClient = HttpClient.newHttpClient();
+
+    @Test
+    void servesPostsAsCborWhenPreferred() {
+        var json = client.toBlocking().exchange(HttpRequest.GET("/posts"), Argument.listOf(Post.class));
+        var cbor = client.toBlocking().exchange(HttpRequest.GET("/posts")
+                .accept(CborMediaTypeCodec.APPLICATION_CBOR_TYPE, MediaType.APPLICATION_JSON_TYPE), Argument.listOf(Post.class));
+
+        assertEquals(CborMediaTypeCodec.APPLICATION_CBOR_TYPE, cbor.getContentType().orElseThrow());
+        assertEquals(json.body(), cbor.body());
+        assertNotEquals(json.getHeaders().get(HttpHeaders.ETAG), cbor.getHeaders().get(HttpHeaders.ETAG));
+
+        var post = client.toBlocking().retrieve(HttpRequest.GET("/posts/1").accept(CborMediaTypeCodec.APPLICATION_CBOR_TYPE), Post.class);
+        assertEquals(json.body().get(0), post);
+    }
+
+    @Test
+    void servesSameJsonCompressed() throws Exception {
+        // read with the JDK client, the Micronaut client inflates transparently and drops Content-Encoding
+        var plain = rawClient.send(get().build(), BodyHandlers.ofString());
+        var compressed = rawClient.send(get().header(HttpHeaders.ACCEPT_ENCODING, ResponseCompressor.GZIP).build(), BodyHandlers.ofByteArray());
+
+        assertTrue(plain.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertEquals(ResponseCompressor.GZIP, compressed.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElseThrow());
+        assertEquals(plain.body(), gunzip(compressed.body()));
+
+        String plainEtag = plain.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+        assertEquals(ResponseCompressor.encodedEtag(plainEtag, ResponseCompressor.GZIP),
+                compressed.headers().firstValue(HttpHeaders.ETAG).orElseThrow());
+    }
+
+    @Test
+    void revalidatesCompressedResponseByItsOwnEtag() throws Exception {
+        var compressed = rawClient.send(get().header(HttpHeaders.ACCEPT_ENCODING, ResponseCompressor.GZIP).build(), BodyHandlers.ofByteArray());
+        String etag = compressed.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+
+        var revalidated = rawClient.send(get()
+                .header(HttpHeaders.ACCEPT_ENCODING, ResponseCompressor.GZIP)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .build(), BodyHandlers.ofByteArray());
+
+        assertEquals(HttpStatus.NOT_MODIFIED.getCode(), revalidated.statusCode());
+        assertEquals(etag, revalidated.headers().firstValue(HttpHeaders.ETAG).orElseThrow());
+    }
+
+    private java.net.http.HttpRequest.Builder get() {
+        return java.net.http.HttpRequest.newBuilder(server.getURI().resolve("/posts"));
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (var input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
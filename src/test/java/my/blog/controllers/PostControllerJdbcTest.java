@@ -0,0 +1,40 @@
+package my.blog.controllers;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.models.User;
+import my.blog.repositories.PostJdbcRepo;
+import my.blog.repositories.PostRepository;
+import my.blog.repositories.UserJdbcRepo;
+import my.blog.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the controller suite against the JDBC repository on H2 in PostgreSQL mode,
+ * logging in with the bootstrap account the application adds to the empty user table.
+ */
+@MicronautTest(environments = "h2")
+class PostControllerJdbcTest extends PostControllerMemoryTest {
+
+    @Inject
+    UserRepository userRepository;
+
+    @Test
+    void usesJdbcRepository() {
+        assertTrue(repository instanceof PostJdbcRepo);
+    }
+
+    @Test
+    void bootstrapsUserIntoEmptyUserTable() {
+        assertTrue(userRepository instanceof UserJdbcRepo);
+        assertTrue(userRepository.findByUsername("blog@gmail.net").isPresent());
+        assertFalse(((UserJdbcRepo) userRepository).saveIfAbsent(User.builder()
+                .username("blog@gmail.net")
+                .passwordHash("replaced")
+                .build()));
+    }
+}
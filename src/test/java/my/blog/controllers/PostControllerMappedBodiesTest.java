@@ -0,0 +1,53 @@
+package my.blog.controllers;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.RxHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.jackson.codec.JsonMediaTypeCodec;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.models.Post;
+import my.blog.services.PostService;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "blog.storage.bodies.type", value = "mapped")
+@Property(name = "blog.storage.bodies.directory", value = "build/test-bodies")
+class PostControllerMappedBodiesTest {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client;
+
+    @Inject
+    PostService service;
+
+    @Inject
+    JsonMediaTypeCodec jsonCodec;
+
+    @Test
+    void writesSameJsonAsCodec() {
+        assertSameJson(service.getById(1L).orElseThrow());
+    }
+
+    @Test
+    void escapesTextWrittenFromStoredBytes() {
+        Post created = service.createPost(Post.builder()
+                .title("Escapes")
+                .text("Line \"one\"\n\tline two \\ \u00fcn\u00efcode \u0001 \uD83D\uDE00")
+                .author("Victor")
+                .build());
+
+        assertSameJson(service.getById(created.getId()).orElseThrow());
+    }
+
+    private void assertSameJson(Post post) {
+        String body = client.toBlocking().retrieve(HttpRequest.GET("/posts/" + post.getId()), String.class);
+        assertEquals(new String(jsonCodec.encode(post), StandardCharsets.UTF_8), body);
+    }
+}
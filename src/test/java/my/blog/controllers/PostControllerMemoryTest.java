@@ -14,7 +14,7 @@ import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import my.blog.errors.CustomHttpResponseError;
 import my.blog.models.Post;
-import my.blog.repositories.MemoryStorage;
+import my.blog.repositories.PostRepository;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -38,7 +38,7 @@ class PostControllerMemoryTest {
     RxStreamingHttpClient client;
 
     @Inject
-    MemoryStorage memoryStorage;
+    PostRepository repository;
 
     @Test
     @Order(1)
@@ -49,7 +49,7 @@ class PostControllerMemoryTest {
         assertNotNull(response.body());
 
         List<Post> posts = response.body();
-        assertThat(posts).containsExactlyInAnyOrderElementsOf(memoryStorage.getPosts());
+        assertThat(posts).containsExactlyInAnyOrderElementsOf(repository.findAllPosts());
     }
 
     @Test
@@ -60,7 +60,7 @@ class PostControllerMemoryTest {
         assertEquals(HttpStatus.OK, response.getStatus());
         assertNotNull(response.body());
 
-        assertEquals(memoryStorage.getPosts().get(0), response.body());
+        assertEquals(repository.findAllPosts().get(0), response.body());
     }
 
     @Test
@@ -0,0 +1,119 @@
+package my.blog.controllers;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.errors.CustomHttpResponseError;
+import my.blog.models.Post;
+import my.blog.repositories.MemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class PostControllerPagingTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Inject
+    MemoryStorage memoryStorage;
+
+    @Test
+    void walksPagesByCursor() {
+        var firstPage = client.toBlocking().exchange(HttpRequest.GET("/posts?limit=2"), Argument.listOf(Post.class));
+
+        assertEquals(HttpStatus.OK, firstPage.getStatus());
+        assertThat(firstPage.body()).containsExactlyElementsOf(memoryStorage.getPosts().subList(0, 2));
+        String cursor = firstPage.getHeaders().get(PostController.NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+
+        var secondPage = client.toBlocking().exchange(HttpRequest.GET("/posts?limit=2&cursor=" + cursor), Argument.listOf(Post.class));
+
+        assertThat(secondPage.body()).containsExactlyElementsOf(memoryStorage.getPosts().subList(2, 3));
+        assertNull(secondPage.getHeaders().get(PostController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void pagesByCreateDate() {
+        var response = client.toBlocking().exchange(HttpRequest.GET("/posts?limit=1&order=createDate"), Argument.listOf(Post.class));
+        List<Post> page = response.body();
+        assertNotNull(page);
+        assertEquals("First post", page.get(0).getTitle());
+
+        String cursor = response.getHeaders().get(PostController.NEXT_CURSOR_HEADER);
+        var next = client.toBlocking().exchange(HttpRequest.GET("/posts?limit=1&cursor=" + cursor), Argument.listOf(Post.class));
+        assertNotNull(next.body());
+        assertEquals("Second post", next.body().get(0).getTitle());
+    }
+
+    @Test
+    void pagesByOffset() {
+        var response = client.toBlocking().exchange(HttpRequest.GET("/posts?offset=1&limit=1"), Argument.listOf(Post.class));
+
+        assertThat(response.body()).containsExactly(memoryStorage.getPosts().get(1));
+    }
+
+    @Test
+    void filtersByAuthor() {
+        var response = client.toBlocking().exchange(HttpRequest.GET("/posts?author=Victor"), Argument.listOf(Post.class));
+
+        assertThat(response.body()).extracting(Post::getTitle).containsExactly("First post");
+    }
+
+    @Test
+    void filtersByCreateDateRange() {
+        var response = client.toBlocking().exchange(
+                HttpRequest.GET("/posts?limit=1&from=2020-11-01T00:00:00&to=2021-01-01T00:00:00"), Argument.listOf(Post.class));
+        assertThat(response.body()).extracting(Post::getTitle).containsExactly("Second post");
+
+        String cursor = response.getHeaders().get(PostController.NEXT_CURSOR_HEADER);
+        var next = client.toBlocking().exchange(
+                HttpRequest.GET("/posts?limit=1&from=2020-11-01T00:00:00&to=2021-01-01T00:00:00&cursor=" + cursor), Argument.listOf(Post.class));
+        assertThat(next.body()).extracting(Post::getTitle).containsExactly("Third post");
+    }
+
+    @Test
+    void filtersByAuthorWithinCreateDateRange() {
+        var response = client.toBlocking().exchange(
+                HttpRequest.GET("/posts?author=Gregory&from=2020-11-01T00:00:00&to=2021-01-01T00:00:00"), Argument.listOf(Post.class));
+        assertThat(response.body()).extracting(Post::getTitle).containsExactly("Second post");
+
+        var outside = client.toBlocking().exchange(
+                HttpRequest.GET("/posts?author=Victor&from=2020-11-01T00:00:00"), Argument.listOf(Post.class));
+        assertThat(outside.body()).isEmpty();
+    }
+
+    @Test
+    void rejectsOffsetWithFilter() {
+        var ex = assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().exchange(HttpRequest.GET("/posts?offset=1&author=Victor"),
+                        Argument.listOf(Post.class),
+                        Argument.of(CustomHttpResponseError.class)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+    }
+
+    @Test
+    void rejectsInvalidCursor() {
+        var ex = assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().exchange(HttpRequest.GET("/posts?cursor=broken"),
+                        Argument.listOf(Post.class),
+                        Argument.of(CustomHttpResponseError.class)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        Optional<CustomHttpResponseError> error = ex.getResponse().getBody(CustomHttpResponseError.class);
+        assertTrue(error.isPresent());
+        assertEquals(HttpStatus.BAD_REQUEST.getCode(), error.get().getStatus());
+    }
+}
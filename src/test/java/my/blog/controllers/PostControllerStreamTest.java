@@ -0,0 +1,43 @@
+package my.blog.controllers;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.models.Post;
+import my.blog.repositories.MemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MicronautTest
+class PostControllerStreamTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Inject
+    MemoryStorage memoryStorage;
+
+    @Test
+    void streamsPostsAsJsonStream() {
+        var request = HttpRequest.GET("/posts/stream").accept(MediaType.APPLICATION_JSON_STREAM_TYPE);
+        List<Post> posts = client.jsonStream(request, Post.class).toList().blockingGet();
+
+        assertThat(posts).containsExactlyElementsOf(memoryStorage.getPosts());
+    }
+
+    @Test
+    void streamsPostsAsJsonArray() {
+        var request = HttpRequest.GET("/posts/stream").accept(MediaType.APPLICATION_JSON_TYPE);
+        List<Post> posts = client.toBlocking().retrieve(request, Argument.listOf(Post.class));
+
+        assertThat(posts).containsExactlyElementsOf(memoryStorage.getPosts());
+    }
+}
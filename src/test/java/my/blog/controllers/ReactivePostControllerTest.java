@@ -0,0 +1,55 @@
+package my.blog.controllers;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.errors.CustomHttpResponseError;
+import my.blog.models.Post;
+import my.blog.repositories.PostRepository;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class ReactivePostControllerTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Inject
+    PostRepository repository;
+
+    @Test
+    void returnsSamePageAsBlockingApi() {
+        var response = client.toBlocking().exchange(HttpRequest.GET("/rx/posts?limit=2"), Argument.listOf(Post.class));
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertThat(response.body()).containsExactlyElementsOf(repository.findPostsAfterId(0, 2));
+        assertNotNull(response.getHeaders().get(PostController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void findsPostById() {
+        var post = client.toBlocking().retrieve(HttpRequest.GET("/rx/posts/1"), Post.class);
+
+        assertEquals(repository.findById(1).orElseThrow(), post);
+    }
+
+    @Test
+    void answersNotFoundForUnknownId() {
+        var ex = assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().exchange(HttpRequest.GET("/rx/posts/404"),
+                        Argument.of(Post.class),
+                        Argument.of(CustomHttpResponseError.class)));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+    }
+}
@@ -0,0 +1,64 @@
+package my.blog.encoding;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCompressorTest {
+
+    private final ResponseCompressor compressor = new ResponseCompressor(new CompressionConfiguration());
+
+    @Test
+    void negotiatesByClientPreference() {
+        assertNull(compressor.negotiate(null));
+        assertNull(compressor.negotiate("br, identity"));
+        assertNull(compressor.negotiate("gzip;q=0, deflate;q=0"));
+        assertEquals(ResponseCompressor.GZIP, compressor.negotiate("gzip, deflate, br"));
+        assertEquals(ResponseCompressor.DEFLATE, compressor.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ResponseCompressor.GZIP, compressor.negotiate("*"));
+        assertEquals(ResponseCompressor.DEFLATE, compressor.negotiate("gzip;q=0, *"));
+    }
+
+    @Test
+    void compressesCompositeBodies() throws IOException {
+        byte[] part = "{\"title\":\"Compressed post\",\"text\":\"Text of compressed post\"}".repeat(100).getBytes(StandardCharsets.UTF_8);
+        ByteBuf body = Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(part), Unpooled.wrappedBuffer(part));
+        byte[] expected = ByteBufUtil.getBytes(body);
+
+        for (int i = 0; i < 3; i++) {
+            ByteBuf gzip = compressor.compress(body, ResponseCompressor.GZIP);
+            assertTrue(gzip.readableBytes() < expected.length);
+            assertArrayEquals(expected, inflate(new GZIPInputStream(new ByteArrayInputStream(ByteBufUtil.getBytes(gzip)))));
+
+            ByteBuf deflate = compressor.compress(body, ResponseCompressor.DEFLATE);
+            assertArrayEquals(expected, inflate(new InflaterInputStream(new ByteArrayInputStream(ByteBufUtil.getBytes(deflate)))));
+        }
+        assertEquals(expected.length, body.readableBytes());
+    }
+
+    @Test
+    void suffixesEntityTagWithCoding() {
+        String etag = ResponseCompressor.encodedEtag("\"p3-1f\"", ResponseCompressor.GZIP);
+
+        assertEquals("\"p3-1f-gzip\"", etag);
+        assertEquals("\"p3-1f\"", ResponseCompressor.identityEtag(etag));
+        assertEquals("\"p3-1f-cbor\"", ResponseCompressor.identityEtag(ResponseCompressor.encodedEtag("\"p3-1f-cbor\"", ResponseCompressor.DEFLATE)));
+        assertEquals("\"p3-1f\"", ResponseCompressor.identityEtag("\"p3-1f\""));
+    }
+
+    private static byte[] inflate(InputStream input) throws IOException {
+        try (input) {
+            return input.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package my.blog.events;
+
+import io.reactivex.subscribers.TestSubscriber;
+import my.blog.models.Post;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostChangeFeedTest {
+
+    private final PostChangeFeed feed = new PostChangeFeed(4);
+
+    @Test
+    void resumesAfterSequenceAndFollowsNewChanges() {
+        feed.onApplicationEvent(PostMutationEvent.created(post(1)));
+        feed.onApplicationEvent(PostMutationEvent.updated(post(1)));
+        feed.onApplicationEvent(PostMutationEvent.deleted(1));
+
+        TestSubscriber<PostChange> subscriber = feed.changesAfter(feed.eventId(1)).test();
+        subscriber.awaitCount(2);
+        feed.onApplicationEvent(PostMutationEvent.created(post(2)));
+        subscriber.awaitCount(3);
+
+        subscriber.assertNoErrors();
+        assertEquals(2, subscriber.values().get(0).getSequence());
+        assertEquals(feed.eventId(2), subscriber.values().get(0).getId());
+        assertEquals(PostMutationEvent.Type.DELETED, subscriber.values().get(1).getType());
+        assertNull(subscriber.values().get(1).getPost());
+        assertEquals(4, subscriber.values().get(2).getSequence());
+        assertEquals(2, subscriber.values().get(2).getPostId());
+        subscriber.dispose();
+    }
+
+    @Test
+    void followsOnlyNewChangesWithoutSequence() {
+        feed.onApplicationEvent(PostMutationEvent.created(post(1)));
+
+        TestSubscriber<PostChange> subscriber = feed.changesAfter(null).test();
+        feed.onApplicationEvent(PostMutationEvent.updated(post(1)));
+        subscriber.awaitCount(1);
+
+        subscriber.assertValueCount(1);
+        assertEquals(2, subscriber.values().get(0).getSequence());
+        subscriber.dispose();
+    }
+
+    @Test
+    void emitsOnlyRequestedChanges() throws InterruptedException {
+        TestSubscriber<PostChange> subscriber = feed.changesAfter(feed.eventId(0)).test(2);
+        for (int i = 1; i <= 3; i++) {
+            feed.onApplicationEvent(PostMutationEvent.created(post(i)));
+        }
+        subscriber.awaitCount(2);
+        subscriber.await(100, TimeUnit.MILLISECONDS);
+        subscriber.assertValueCount(2);
+
+        subscriber.request(1);
+        subscriber.awaitCount(3);
+        assertEquals(3, subscriber.values().get(2).getSequence());
+        subscriber.dispose();
+    }
+
+    @Test
+    void subscriberBehindTheBufferGetsGap() throws InterruptedException {
+        TestSubscriber<PostChange> subscriber = feed.changesAfter(feed.eventId(0)).test(0);
+        for (int i = 1; i <= 10; i++) {
+            feed.onApplicationEvent(PostMutationEvent.created(post(i)));
+        }
+
+        subscriber.request(1);
+        assertTrue(subscriber.await(5, TimeUnit.SECONDS));
+        subscriber.assertError(ChangeFeedGapException.class);
+        subscriber.assertNoValues();
+    }
+
+    @Test
+    void unknownSequenceIsGap() {
+        feed.onApplicationEvent(PostMutationEvent.created(post(1)));
+
+        feed.changesAfter(feed.eventId(5)).test().assertError(ChangeFeedGapException.class);
+        feed.changesAfter(feed.eventId(-1)).test().assertError(ChangeFeedGapException.class);
+        feed.changesAfter("1").test().assertError(ChangeFeedGapException.class);
+    }
+
+    @Test
+    void eventIdOfAnotherFeedIsGap() {
+        PostChangeFeed restarted = new PostChangeFeed(4);
+        feed.onApplicationEvent(PostMutationEvent.created(post(1)));
+        feed.onApplicationEvent(PostMutationEvent.created(post(2)));
+        restarted.onApplicationEvent(PostMutationEvent.created(post(3)));
+
+        assertNotEquals(feed.eventId(1), restarted.eventId(1));
+        feed.changesAfter(restarted.eventId(1)).test().assertError(ChangeFeedGapException.class);
+    }
+
+    private static Post post(long id) {
+        Post post = Post.builder().title("Title " + id).text("Text " + id).author("Brandon").build();
+        post.setId(id);
+        return post;
+    }
+}
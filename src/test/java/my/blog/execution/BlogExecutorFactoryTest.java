@@ -0,0 +1,35 @@
+package my.blog.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlogExecutorFactoryTest {
+
+    private final BlogExecutorFactory factory = new BlogExecutorFactory();
+
+    @Test
+    void runsOnCallerInEventLoopMode() throws Exception {
+        var executor = factory.blogExecutor(configuration(ExecutionMode.EVENT_LOOP));
+
+        assertSame(Thread.currentThread(), executor.submit(Thread::currentThread).get());
+    }
+
+    @Test
+    void runsOffCallerInVirtualThreadMode() throws Exception {
+        var executor = factory.blogExecutor(configuration(ExecutionMode.VIRTUAL_THREADS));
+        try {
+            assertNotSame(Thread.currentThread(), executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutionConfiguration configuration(ExecutionMode mode) {
+        var configuration = new ExecutionConfiguration();
+        configuration.setMode(mode);
+        return configuration;
+    }
+}
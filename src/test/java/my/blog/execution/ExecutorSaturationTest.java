@@ -0,0 +1,77 @@
+package my.blog.execution;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.errors.CustomHttpResponseError;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "blog.execution.mode", value = "THREAD_POOL")
+@Property(name = "blog.execution.pool-threads", value = "1")
+@Property(name = "blog.execution.pool-queue-size", value = "1")
+class ExecutorSaturationTest {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client;
+
+    @Inject
+    @Named(BlogExecutorFactory.NAME)
+    ExecutorService executor;
+
+    @Test
+    void answersSaturatedPoolWithServiceUnavailable() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        started.await();
+        executor.execute(() -> awaitQuietly(release));
+        try {
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+
+            var refused = assertThrows(HttpClientResponseException.class,
+                    () -> client.toBlocking().exchange(HttpRequest.GET("/posts/1")));
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, refused.getStatus());
+            assertEquals("1", refused.getResponse().getHeaders().get(HttpHeaders.RETRY_AFTER));
+            var error = refused.getResponse().getBody(CustomHttpResponseError.class);
+            assertTrue(error.isPresent());
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE.getCode(), error.get().getStatus());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void mapsRejectionToServiceUnavailable() {
+        var response = new RejectedExecutionExceptionHandler().handle(HttpRequest.GET("/posts"), new RejectedExecutionException());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatus());
+        assertEquals("1", response.getHeaders().get(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
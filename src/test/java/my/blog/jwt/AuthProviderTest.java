@@ -0,0 +1,57 @@
+package my.blog.jwt;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import javax.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "blog.security.login.max-failures", value = "2")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AuthProviderTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Test
+    @Order(1)
+    void logsInWithStoredCredentials() {
+        var token = login("blog@gmail.net", "123456");
+
+        assertNotNull(token);
+        assertEquals("blog@gmail.net", token.getUsername());
+    }
+
+    @Test
+    @Order(2)
+    void refusesIdentityAfterTooManyFailures() {
+        assertUnauthorized("blog@gmail.net", "wrong");
+        assertUnauthorized("blog@gmail.net", "wrong");
+
+        assertUnauthorized("blog@gmail.net", "123456");
+    }
+
+    private void assertUnauthorized(String username, String password) {
+        var ex = assertThrows(HttpClientResponseException.class, () -> login(username, password));
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatus());
+    }
+
+    private BearerAccessRefreshToken login(String username, String password) {
+        var credentials = new UsernamePasswordCredentials(username, password);
+        return client.toBlocking().retrieve(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+    }
+}
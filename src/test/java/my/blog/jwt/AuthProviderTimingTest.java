@@ -0,0 +1,44 @@
+package my.blog.jwt;
+
+import io.micronaut.security.authentication.AuthenticationException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthProviderTimingTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void unknownLoginIsHashedLikeAKnownOne() {
+        var configuration = new LoginConfiguration();
+        configuration.setPbkdf2Iterations(1_000);
+        var matches = new AtomicInteger();
+        var hasher = new PasswordHasher(configuration) {
+            @Override
+            public boolean matches(String password, String encoded) {
+                matches.incrementAndGet();
+                return super.matches(password, encoded);
+            }
+        };
+        var provider = new AuthProvider(username -> Optional.empty(), hasher, new LoginThrottle(configuration), executor, configuration);
+
+        var credentials = new UsernamePasswordCredentials("nobody@gmail.net", "123456");
+        assertThrows(AuthenticationException.class, () -> Flowable.fromPublisher(provider.authenticate(null, credentials)).blockingFirst());
+
+        assertEquals(1, matches.get());
+    }
+}
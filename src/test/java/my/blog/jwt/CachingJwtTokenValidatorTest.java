@@ -0,0 +1,54 @@
+package my.blog.jwt;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.models.Post;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class CachingJwtTokenValidatorTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Inject
+    CachingJwtTokenValidator validator;
+
+    @Test
+    void verifiesTokenOnceAndRejectsRevokedToken() {
+        var token = login().getAccessToken();
+        long verificationsBefore = validator.verificationCount();
+
+        createPost(token);
+        createPost(token);
+        assertEquals(verificationsBefore + 1, validator.verificationCount());
+
+        assertTrue(validator.revoke(token));
+        var ex = assertThrows(HttpClientResponseException.class, () -> createPost(token));
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatus());
+    }
+
+    private void createPost(String token) {
+        var post = Post.builder().title("Token").text("Cached token").author("Bot").build();
+        var response = client.toBlocking().exchange(HttpRequest.PUT("/posts/create", post).bearerAuth(token), Post.class);
+        assertEquals(HttpStatus.OK, response.getStatus());
+    }
+
+    private BearerAccessRefreshToken login() {
+        var credentials = new UsernamePasswordCredentials("blog@gmail.net", "123456");
+        var token = client.toBlocking().retrieve(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+        assertNotNull(token);
+        return token;
+    }
+}
@@ -0,0 +1,25 @@
+package my.blog.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(new LoginConfiguration());
+
+    @Test
+    void matchesOnlyTheHashedPassword() {
+        String hash = hasher.hash("secret");
+
+        assertTrue(hasher.matches("secret", hash));
+        assertFalse(hasher.matches("Secret", hash));
+        assertNotEquals(hash, hasher.hash("secret"));
+    }
+
+    @Test
+    void neverMatchesMalformedHash() {
+        assertFalse(hasher.matches("secret", "secret"));
+        assertFalse(hasher.matches("secret", "pbkdf2$x$y$z"));
+    }
+}
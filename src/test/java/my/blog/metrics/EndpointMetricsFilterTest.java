@@ -0,0 +1,49 @@
+package my.blog.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.RxStreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import my.blog.models.Post;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class EndpointMetricsFilterTest {
+
+    @Inject
+    @Client("/")
+    RxStreamingHttpClient client;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void timesEndpointAndRepositoryCalls() {
+        client.toBlocking().retrieve(HttpRequest.GET("/posts/1"), Post.class);
+
+        var endpoint = registry.find("blog.http.requests")
+                .tags("endpoint", "getById", "outcome", "SUCCESS")
+                .timer();
+        assertNotNull(endpoint);
+        assertEquals(1, endpoint.count());
+
+        var repository = registry.find("blog.repository.calls")
+                .tags("method", "findById", "outcome", "SUCCESS")
+                .timer();
+        assertNotNull(repository);
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void exposesMetricsForScraping() {
+        String scrape = client.toBlocking().retrieve(HttpRequest.GET("/prometheus"));
+
+        assertThat(scrape).contains("blog_posts_count", "jvm_memory_used_bytes");
+    }
+}
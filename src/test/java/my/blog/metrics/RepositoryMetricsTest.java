@@ -0,0 +1,43 @@
+package my.blog.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import my.blog.metrics.RepositoryMetrics.Operation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final RepositoryMetrics metrics = new RepositoryMetrics(registry);
+
+    @Test
+    void timesSuccessfulCall() {
+        assertEquals("post", metrics.timed(Operation.FIND_BY_ID, () -> "post"));
+
+        assertEquals(1, count("SUCCESS"));
+        assertEquals(0, count("ERROR"));
+    }
+
+    @Test
+    void timesFailingCallAsError() {
+        var failure = new IllegalStateException("storage is down");
+
+        var thrown = assertThrows(IllegalStateException.class,
+                () -> metrics.timed(Operation.FIND_BY_ID, () -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals(0, count("SUCCESS"));
+        assertEquals(1, count("ERROR"));
+    }
+
+    private long count(String outcome) {
+        return registry.get("blog.repository.calls")
+                .tags("method", "findById", "outcome", outcome)
+                .timer()
+                .count();
+    }
+}
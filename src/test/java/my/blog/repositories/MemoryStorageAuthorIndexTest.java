@@ -0,0 +1,65 @@
+package my.blog.repositories;
+
+import my.blog.models.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryStorageAuthorIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2021, 1, 1, 0, 0);
+
+    private final MemoryStorage storage = new MemoryStorage();
+
+    @Test
+    void pagesAuthorPostsWithinWindowByCreateDate() {
+        for (int day = 0; day < 30; day++) {
+            save("Ann", START.plusDays(29 - day));
+            save("Bob", START.plusDays(day));
+        }
+
+        List<Post> first = storage.pageByAuthorCreatedBetween("Ann", START.plusDays(10), START.plusDays(15), null, 0, 3);
+        assertThat(first).extracting(Post::getCreateDate)
+                .containsExactly(START.plusDays(10), START.plusDays(11), START.plusDays(12));
+        assertThat(first).extracting(Post::getAuthor).containsOnly("Ann");
+
+        Post last = first.get(first.size() - 1);
+        List<Post> second = storage.pageByAuthorCreatedBetween("Ann", START.plusDays(10), START.plusDays(15), last.getCreateDate(), last.getId(), 3);
+        assertThat(second).extracting(Post::getCreateDate).containsExactly(START.plusDays(13), START.plusDays(14));
+    }
+
+    @Test
+    void windowFollowsUpdatesAndRemovals() {
+        Post moved = save("Ann", START);
+        Post removed = save("Ann", START.plusDays(1));
+
+        moved.setCreateDate(START.plusDays(5));
+        storage.save(moved);
+        storage.remove(removed.getId());
+
+        assertThat(storage.pageByAuthorCreatedBetween("Ann", START, START.plusDays(2), null, 0, 10)).isEmpty();
+        assertThat(storage.pageByAuthorCreatedBetween("Ann", null, START.plusDays(6), null, 0, 10))
+                .extracting(Post::getId).containsExactly(moved.getId());
+    }
+
+    @Test
+    void postsWithoutDateLieOutsideAnyWindow() {
+        save("Ann", null);
+        Post dated = save("Ann", START);
+
+        assertThat(storage.pageByAuthorCreatedBetween("Ann", null, START.plusDays(1), null, 0, 10))
+                .extracting(Post::getId).containsExactly(dated.getId());
+        assertThat(storage.pageByAuthor("Ann", 0, 10)).hasSize(2);
+    }
+
+    private Post save(String author, LocalDateTime createDate) {
+        Post post = Post.builder().title("Title").text("Text").author(author).createDate(createDate).build();
+        post.setId(storage.incrementAndGetId());
+        post.setVersion(1L);
+        storage.save(post);
+        return post;
+    }
+}
@@ -0,0 +1,132 @@
+package my.blog.repositories;
+
+import my.blog.models.Post;
+import my.blog.repositories.journal.NoopPostJournal;
+import my.blog.search.PostSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostMemoryRepoConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private static final int UPDATES_PER_THREAD = 500;
+
+    private final PostMemoryRepo repository = new PostMemoryRepo(new MemoryStorage(), new NoopPostJournal(), new PostSearchIndex());
+
+    @Test
+    void versionedUpdatesOfOnePostAreNotLost() throws Exception {
+        long id = repository.createPost(newPost("Counter", "0")).getId();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                while (true) {
+                    Post current = repository.findById(id).orElseThrow();
+                    Post change = newPost("Counter", String.valueOf(Long.parseLong(current.getText()) + 1));
+                    change.setId(id);
+                    change.setVersion(current.getVersion());
+                    try {
+                        repository.updatePost(change);
+                        break;
+                    } catch (VersionConflictException ignored) {
+                    }
+                }
+            }
+        });
+
+        Post post = repository.findById(id).orElseThrow();
+        assertEquals(THREADS * UPDATES_PER_THREAD, Long.parseLong(post.getText()));
+        assertEquals(1 + THREADS * UPDATES_PER_THREAD, post.getVersion());
+    }
+
+    @Test
+    void updatesOfDistinctPostsRunConcurrently() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            ids.add(repository.createPost(newPost("Post " + i, "Text " + i)).getId());
+        }
+        AtomicInteger thread = new AtomicInteger();
+
+        runConcurrently(() -> {
+            long id = ids.get(thread.getAndIncrement());
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                Post change = newPost("Post " + id, "Revision " + i);
+                change.setId(id);
+                change.setVersion(i + 1);
+                assertTrue(repository.updatePost(change).isPresent());
+            }
+        });
+
+        for (long id : ids) {
+            Post post = repository.findById(id).orElseThrow();
+            assertEquals(1 + UPDATES_PER_THREAD, post.getVersion());
+            assertEquals("Revision " + (UPDATES_PER_THREAD - 1), post.getText());
+        }
+        assertEquals(THREADS, repository.countPosts());
+    }
+
+    @Test
+    void staleUpdateIsRejected() {
+        Post created = repository.createPost(newPost("Title", "Text"));
+        Post first = newPost("First", "First text");
+        first.setId(created.getId());
+        first.setVersion(created.getVersion());
+        repository.updatePost(first);
+
+        Post stale = newPost("Stale", "Stale text");
+        stale.setId(created.getId());
+        stale.setVersion(created.getVersion());
+        var conflict = assertThrows(VersionConflictException.class, () -> repository.updatePost(stale));
+
+        assertEquals(created.getVersion(), conflict.getExpectedVersion());
+        assertEquals(created.getVersion() + 1, conflict.getCurrentVersion());
+        assertEquals("First", repository.findById(created.getId()).orElseThrow().getTitle());
+        assertTrue(repository.updatePosts(List.of(stale)).get(0).isEmpty());
+    }
+
+    @Test
+    void unversionedUpdateReplacesAnyRevision() {
+        Post created = repository.createPost(newPost("Title", "Text"));
+        Post change = newPost("Changed", "Changed text");
+        change.setId(created.getId());
+
+        assertTrue(repository.updatePost(change).isPresent());
+        assertTrue(repository.updatePost(change).isPresent());
+        assertEquals(created.getVersion() + 2, repository.findById(created.getId()).orElseThrow().getVersion());
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Post newPost(String title, String text) {
+        return Post.builder().title(title).text(text).author("Brandon").build();
+    }
+}
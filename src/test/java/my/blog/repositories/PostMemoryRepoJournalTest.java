@@ -0,0 +1,146 @@
+package my.blog.repositories;
+
+import my.blog.models.Post;
+import my.blog.repositories.journal.PostJournal;
+import my.blog.search.PostSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostMemoryRepoJournalTest {
+
+    private final ControlledJournal journal = new ControlledJournal();
+
+    private final PostMemoryRepo repository = new PostMemoryRepo(new MemoryStorage(), journal, new PostSearchIndex());
+
+    @Test
+    void changeIsVisibleOnlyOnceJournaled() {
+        var created = repository.createPostAsync(newPost("Journaled", "Journaled text"));
+        long id = journal.lastSaved().getId();
+
+        assertFalse(created.isDone());
+        assertTrue(repository.findById(id).isEmpty());
+        assertEquals(0, repository.searchPosts("journaled", 10).size());
+
+        journal.completeAll();
+
+        assertEquals(id, created.join().getId());
+        assertEquals("Journaled", repository.findById(id).orElseThrow().getTitle());
+        assertEquals(1, repository.searchPosts("journaled", 10).size());
+    }
+
+    @Test
+    void failedCreateLeavesStoreUnchanged() {
+        journal.failing = true;
+
+        var error = assertThrows(CompletionException.class, () -> repository.createPost(newPost("Lost", "Lost text")));
+
+        assertTrue(error.getCause() instanceof IOException);
+        assertEquals(0, repository.countPosts());
+        assertEquals(0, repository.searchPosts("lost", 10).size());
+    }
+
+    @Test
+    void failedUpdateKeepsPreviousRevision() {
+        journal.immediate = true;
+        Post created = repository.createPost(newPost("Original", "Original text"));
+        journal.failing = true;
+        Post change = newPost("Changed", "Changed text");
+        change.setId(created.getId());
+
+        assertThrows(CompletionException.class, () -> repository.updatePost(change));
+
+        Post stored = repository.findById(created.getId()).orElseThrow();
+        assertEquals("Original", stored.getTitle());
+        assertEquals(created.getVersion(), stored.getVersion());
+        assertEquals(0, repository.searchPosts("changed", 10).size());
+
+        journal.failing = false;
+        assertEquals(created.getVersion() + 1, repository.updatePost(change).orElseThrow().getVersion());
+    }
+
+    @Test
+    void failedDeleteKeepsPost() {
+        journal.immediate = true;
+        Post created = repository.createPost(newPost("Kept", "Kept text"));
+        journal.failing = true;
+
+        assertThrows(CompletionException.class, () -> repository.deletePostById(created.getId()));
+
+        assertTrue(repository.findById(created.getId()).isPresent());
+        assertEquals(1, repository.searchPosts("kept", 10).size());
+    }
+
+    @Test
+    void laterChangeBuildsOnPendingRevision() {
+        var created = repository.createPostAsync(newPost("First", "First text"));
+        long id = journal.lastSaved().getId();
+        Post change = newPost("Second", "Second text");
+        change.setId(id);
+        change.setVersion(1);
+
+        var updated = repository.updatePostAsync(change);
+        assertTrue(repository.findById(id).isEmpty());
+        journal.completeAll();
+
+        assertNotNull(created.join());
+        assertEquals(2, updated.join().orElseThrow().getVersion());
+        assertEquals("Second", repository.findById(id).orElseThrow().getTitle());
+    }
+
+    private static Post newPost(String title, String text) {
+        return Post.builder().title(title).text(text).author("Brandon").build();
+    }
+
+    /**
+     * Completes appends immediately or on demand, fails them with an IO error while failing is set.
+     */
+    private static class ControlledJournal implements PostJournal {
+
+        private final List<CompletableFuture<Void>> waiting = new ArrayList<>();
+
+        private Post lastSaved;
+
+        private boolean immediate;
+
+        private boolean failing;
+
+        @Override
+        public CompletableFuture<Void> appendSave(Post post) {
+            lastSaved = post;
+            return append();
+        }
+
+        @Override
+        public CompletableFuture<Void> appendDelete(long id) {
+            return append();
+        }
+
+        Post lastSaved() {
+            return lastSaved;
+        }
+
+        void completeAll() {
+            waiting.forEach(append -> append.complete(null));
+            waiting.clear();
+        }
+
+        private CompletableFuture<Void> append() {
+            if (failing) {
+                return CompletableFuture.failedFuture(new IOException("Disk full"));
+            }
+            if (immediate) {
+                return CompletableFuture.completedFuture(null);
+            }
+            var append = new CompletableFuture<Void>();
+            waiting.add(append);
+            return append;
+        }
+    }
+}
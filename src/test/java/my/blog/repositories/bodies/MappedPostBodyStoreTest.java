@@ -0,0 +1,137 @@
+package my.blog.repositories.bodies;
+
+import my.blog.models.Post;
+import my.blog.repositories.MemoryStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedPostBodyStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsWrittenBodiesAndDeletesReleasedSegments() throws IOException {
+        MappedPostBodyStore store = new MappedPostBodyStore(configuration());
+        long first = store.write("first".getBytes(StandardCharsets.UTF_8));
+        long large = store.write(new byte[2 * 1024 * 1024]);
+        long last = store.write("last".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("first", StandardCharsets.UTF_8.decode(store.read(first)).toString());
+        assertEquals(2 * 1024 * 1024, store.read(large).remaining());
+        assertEquals(3, segmentFiles());
+
+        store.release(first);
+        store.release(large);
+        assertNull(store.read(first));
+        assertEquals(1, segmentFiles());
+        assertEquals("last", StandardCharsets.UTF_8.decode(store.read(last)).toString());
+        assertEquals(MappedPostBodyStore.RECORD_HEADER + 4, store.storedBytes());
+        store.close();
+    }
+
+    @Test
+    void storageKeepsTextsInSegments() {
+        MappedPostBodyStore store = new MappedPostBodyStore(configuration());
+        MemoryStorage storage = new MemoryStorage(store);
+        Post post = Post.builder()
+                .title("Mapped")
+                .text("Text in a segment, \u00fcn\u00efcode \"quoted\"")
+                .author("Victor")
+                .createDate(LocalDateTime.of(2021, 1, 1, 10, 0))
+                .build();
+        post.setId(storage.incrementAndGetId());
+        post.setGuid("not a uuid");
+        storage.save(post);
+
+        assertEquals(post, storage.findById(post.getId()).orElseThrow());
+        var content = storage.findContentById(post.getId()).orElseThrow();
+        assertNull(content.getPost().getText());
+        assertEquals(post.getText(), StandardCharsets.UTF_8.decode(content.getText()).toString());
+
+        post.setText("Changed");
+        storage.save(post);
+        assertEquals("Changed", storage.findById(post.getId()).orElseThrow().getText());
+        assertEquals(MappedPostBodyStore.RECORD_HEADER + 7, store.storedBytes());
+
+        storage.remove(post.getId());
+        assertEquals(0, store.storedBytes());
+        store.close();
+    }
+
+    @Test
+    void compactionKeepsSegmentsBoundedUnderUpdateChurn() {
+        MappedPostBodyStore store = new MappedPostBodyStore(configuration());
+        int segment = 1024 * 1024;
+        long[] hot = new long[64];
+        for (int i = 0; i < hot.length; i++) {
+            hot[i] = store.write(text(i));
+        }
+        List<Long> cold = new ArrayList<>();
+        for (int round = 0; round < 60; round++) {
+            cold.add(store.write(text(round)));
+            for (int i = 0; i < hot.length; i++) {
+                store.release(hot[i]);
+                hot[i] = store.write(text(i + round));
+            }
+            store.compact();
+            assertTrue(store.mappedBytes() <= store.storedBytes() * 2 + 2L * segment,
+                    "mapped " + store.mappedBytes() + " for " + store.storedBytes() + " live bytes");
+        }
+
+        for (int round = 0; round < cold.size(); round++) {
+            assertEquals(ByteBuffer.wrap(text(round)), store.read(cold.get(round)));
+        }
+        for (int i = 0; i < hot.length; i++) {
+            assertEquals(ByteBuffer.wrap(text(i + 59)), store.read(hot[i]));
+        }
+        store.close();
+    }
+
+    @Test
+    void staleReferenceOfReusedSlotReadsNull() {
+        MappedPostBodyStore store = new MappedPostBodyStore(configuration());
+        long released = store.write("released".getBytes(StandardCharsets.UTF_8));
+        store.write("pinned".getBytes(StandardCharsets.UTF_8));
+        store.release(released);
+        long reused = store.write("reused".getBytes(StandardCharsets.UTF_8));
+
+        assertNotEquals(released, reused);
+        assertNull(store.read(released));
+        assertEquals("reused", StandardCharsets.UTF_8.decode(store.read(reused)).toString());
+        store.close();
+    }
+
+    private static byte[] text(int seed) {
+        byte[] text = new byte[8 * 1024];
+        Arrays.fill(text, (byte) seed);
+        return text;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private PostBodyConfiguration configuration() {
+        PostBodyConfiguration configuration = new PostBodyConfiguration();
+        configuration.setType(PostBodyConfiguration.MAPPED);
+        configuration.setDirectory(directory.toString());
+        configuration.setSegmentSizeMb(1);
+        return configuration;
+    }
+}
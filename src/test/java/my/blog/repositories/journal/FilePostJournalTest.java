@@ -0,0 +1,205 @@
+package my.blog.repositories.journal;
+
+import my.blog.models.Post;
+import my.blog.repositories.MemoryStorage;
+import my.blog.repositories.PostMemoryRepo;
+import my.blog.search.PostSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilePostJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversSnapshotAndLogTail() throws IOException {
+        MemoryStorage storage = new MemoryStorage();
+        storage.seed();
+        FilePostJournal journal = new FilePostJournal(configuration(), storage);
+        PostMemoryRepo repo = new PostMemoryRepo(storage, journal, new PostSearchIndex());
+
+        Post created = repo.createPost(Post.builder().title("Journaled").text("Journaled text").author("Brandon").build());
+        journal.snapshot();
+        Post change = Post.builder().title("Changed").text("Changed text").build();
+        change.setId(created.getId());
+        repo.updatePost(change);
+        repo.deletePostById(1L);
+        journal.close();
+
+        MemoryStorage recovered = new MemoryStorage();
+        FilePostJournal reopened = new FilePostJournal(configuration(), recovered);
+        try {
+            assertEquals(storage.getPosts(), recovered.getPosts());
+            assertTrue(recovered.findById(1L).isEmpty());
+            var recoveredPost = recovered.findById(created.getId()).orElseThrow();
+            assertEquals("Changed", recoveredPost.getTitle());
+            assertEquals(2L, recoveredPost.getVersion());
+            assertEquals(created.getId() + 1, recovered.incrementAndGetId());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void failedWriteLeavesNoRecordInLog() throws IOException {
+        AtomicBoolean failWrites = new AtomicBoolean();
+        MemoryStorage storage = new MemoryStorage();
+        FilePostJournal journal = new FilePostJournal(configuration(), storage) {
+            @Override
+            FileChannel openLog(long logGeneration) throws IOException {
+                return new FailingChannel(super.openLog(logGeneration), failWrites);
+            }
+        };
+        PostMemoryRepo repo = new PostMemoryRepo(storage, journal, new PostSearchIndex());
+
+        Post before = repo.createPost(Post.builder().title("Before").text("Before text").author("Brandon").build());
+        failWrites.set(true);
+        assertThrows(CompletionException.class,
+                () -> repo.createPost(Post.builder().title("Failed").text("Failed text").author("Brandon").build()));
+        failWrites.set(false);
+        Post after = repo.createPost(Post.builder().title("After").text("After text").author("Brandon").build());
+        journal.close();
+
+        MemoryStorage recovered = new MemoryStorage();
+        FilePostJournal reopened = new FilePostJournal(configuration(), recovered);
+        try {
+            assertEquals(storage.getPosts(), recovered.getPosts());
+            assertEquals(List.of(before.getId(), after.getId()),
+                    recovered.getPosts().stream().map(Post::getId).collect(Collectors.toList()));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private JournalConfiguration configuration() {
+        JournalConfiguration configuration = new JournalConfiguration();
+        configuration.setEnabled(true);
+        configuration.setDirectory(directory.toString());
+        configuration.setFsync(FsyncPolicy.ALWAYS);
+        return configuration;
+    }
+
+    /**
+     * Writes half of the buffer and then fails while {@code failWrites} is set, like a full disk.
+     */
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel channel;
+
+        private final AtomicBoolean failWrites;
+
+        private FailingChannel(FileChannel channel, AtomicBoolean failWrites) {
+            this.channel = channel;
+            this.failWrites = failWrites;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWrites.get()) {
+                ByteBuffer half = src.duplicate();
+                half.limit(half.position() + half.remaining() / 2);
+                src.position(src.position() + channel.write(half));
+                throw new IOException("No space left on device");
+            }
+            return channel.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return channel.read(dsts, offset, length);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            channel.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return channel.transferFrom(src, position, count);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+}
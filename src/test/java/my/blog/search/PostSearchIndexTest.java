@@ -0,0 +1,33 @@
+package my.blog.search;
+
+import my.blog.models.Post;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class PostSearchIndexTest {
+
+    private final PostSearchIndex index = new PostSearchIndex();
+
+    @Test
+    void ranksTitleMatchesFirstAndFollowsChanges() {
+        index.index(post(1L, "Micronaut tips", "Text about gradle", "Victor"));
+        index.index(post(2L, "Gradle builds", "Text about micronaut and gradle", "Gregory"));
+        index.index(post(3L, "Cooking", "Nothing related", "Kobayashi"));
+
+        assertArrayEquals(new long[]{2L, 1L}, index.search("Gradle", 10));
+        assertArrayEquals(new long[]{3L}, index.search("kobayashi", 10));
+
+        index.index(post(2L, "Cooking again", "Still nothing", "Gregory"));
+        assertArrayEquals(new long[]{1L}, index.search("gradle", 10));
+
+        index.remove(1L);
+        assertArrayEquals(new long[0], index.search("gradle", 10));
+    }
+
+    private static Post post(long id, String title, String text, String author) {
+        Post post = Post.builder().title(title).text(text).author(author).build();
+        post.setId(id);
+        return post;
+    }
+}
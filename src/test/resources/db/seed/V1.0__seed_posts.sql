@@ -0,0 +1,6 @@
+INSERT INTO wb_posts (guid, title, text, author, createDate, updateDate, version)
+VALUES ('7d1b8a34-36a6-4a2b-9d0e-5f3c8f0b1a01', 'First post', 'Text of first post', 'Victor', '2020-10-10 10:10:00', '2020-10-10 10:10:00', 1);
+INSERT INTO wb_posts (guid, title, text, author, createDate, updateDate, version)
+VALUES ('7d1b8a34-36a6-4a2b-9d0e-5f3c8f0b1a02', 'Second post', 'Text of second post', 'Gregory', '2020-11-11 11:11:00', '2020-11-11 11:11:00', 1);
+INSERT INTO wb_posts (guid, title, text, author, createDate, updateDate, version)
+VALUES ('7d1b8a34-36a6-4a2b-9d0e-5f3c8f0b1a03', 'Third post', 'Text of third post', 'Kobayashi', '2020-12-12 12:12:00', '2020-12-12 12:12:00', 1);